@@ -0,0 +1,314 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The AiScheduler class limits the time the enemies spend on decisions per frame. Every step, it lets enemies decide on
+ * their direction one after another until the time budget is used up. The enemies that did not get a turn keep
+ * walking in their last direction and are continued with in the next step, so over a few steps every enemy decides.
+ * <p>
+ * A frame that catches up after a slow frame runs several steps, which share the budget started by
+ * {@link #beginFrame()}, so a slow frame does not spend the budget once per step. Without frames, as in the command
+ * line tools, every step has a budget of its own.
+ * <p>
+ * The enemies take turns in a fixed round-robin order. In the order {@link Order#NEAREST_FIRST}, the enemies near the
+ * player decide first in every step, and only the remaining budget goes round-robin to the enemies further away.
+ * <p>
+ * Without a budget, every enemy decides every step, as part of the (possibly parallel) update of the
+ * {@link EnemyStore}. With a budget, the enemies that decide depend on how fast the computer is, so the game is no
+ * longer the same for the same seed. The scheduler measures how often each enemy decides per simulated second and
+ * how often and by how much it exceeded its budget.
+ */
+public class AiScheduler {
+
+    /**
+     * The orders in which the enemies take turns.
+     */
+    public enum Order {
+        ROUND_ROBIN,
+        NEAREST_FIRST
+    }
+
+    //The distance to the player in pixels within which enemies decide first in the order NEAREST_FIRST.
+    public static final float NEAR_DISTANCE = 8 * OccupancyGrid.TILE_SIZE;
+
+    //The number of decisions between two checks of the clock, since a decision is cheaper than reading the clock.
+    private static final int DECISIONS_PER_CHECK = 16;
+
+    //The end of the budget of the current frame or step, and the time of the last check of the clock, in nanoseconds.
+    private long deadline, lastCheck;
+
+    //Whether the budget is started once per frame by beginFrame(), instead of once per step.
+    private boolean perFrame = false;
+
+    //The time since each enemy decided last, in seconds.
+    private final float[] waited;
+
+    //The number of decisions of each enemy since the metrics were reset.
+    private final int[] decisions;
+
+    //The enemies near the player in the current step.
+    private final IntArray near = new IntArray();
+
+    //The time budget per frame, or per step without frames, in nanoseconds, 0 for no budget.
+    private long budget = 0;
+    private Order order = Order.ROUND_ROBIN;
+
+    //The enemy the round-robin turns and the turns of the near enemies continue with.
+    private int cursor = 0;
+    private int nearCursor = 0;
+
+    /**
+     * Variables for the metrics
+     */
+    private long steps = 0;
+    private long totalDecisions = 0;
+    private int lastDecisions = 0;
+    private float simulatedTime = 0;
+    private float longestWait = 0;
+    private long overruns = 0;
+    private long lastNanos = 0;
+    private long maxOverrun = 0;
+
+    /**
+     * Constructor for AiScheduler.
+     *
+     * @param capacity The number of enemies.
+     */
+    public AiScheduler(int capacity) {
+        waited = new float[capacity];
+        decisions = new int[capacity];
+    }
+
+    /**
+     * Sets the time budget and the order of the decisions.
+     *
+     * @param budget The time budget per frame, or per step without frames, in nanoseconds, 0 to let every enemy
+     *               decide every step.
+     * @param order  The order in which the enemies take turns.
+     */
+    public void setBudget(long budget, Order order) {
+        this.budget = budget;
+        this.order = order;
+        // The time waited while every enemy decided every step is not counted
+        Arrays.fill(waited, 0);
+    }
+
+    /**
+     * Checks whether the decisions are limited by a time budget.
+     *
+     * @return True if a time budget is set.
+     */
+    public boolean isLimited() {
+        return budget > 0;
+    }
+
+    /**
+     * Starts the budget of a frame, shared by all steps run until the next frame. Called once per frame before its
+     * steps, from then on the budget is no longer started per step.
+     */
+    public void beginFrame() {
+        if (budget > 0) {
+            perFrame = true;
+            deadline = System.nanoTime() + budget;
+        }
+    }
+
+    /**
+     * Records a step in which every enemy decided as part of the update of the enemies, for the metrics.
+     *
+     * @param enemies The enemies.
+     * @param dt      The time in seconds the step covers.
+     */
+    public void recordAll(EnemyStore enemies, float dt) {
+        int size = enemies.size();
+        for (int i = 0; i < size; i++) {
+            decisions[i]++;
+        }
+        longestWait = Math.max(longestWait, dt);
+        finishStep(size, dt, 0);
+    }
+
+    /**
+     * Lets enemies decide on their direction until the time budget of the frame or the step is used up. If an earlier
+     * step of the frame used up the budget, no enemy decides in this step.
+     *
+     * @param enemies   The enemies.
+     * @param dt        The time in seconds the step covers.
+     * @param flowField The flow field towards the player, or null if the enemies walk in random directions.
+     * @param playerX   The x-coordinate of the center of the player.
+     * @param playerY   The y-coordinate of the center of the player.
+     */
+    public void run(EnemyStore enemies, float dt, FlowField flowField, float playerX, float playerY) {
+        long start = System.nanoTime();
+        if (!perFrame) {
+            deadline = start + budget;
+        }
+        int size = enemies.size();
+        for (int i = 0; i < size; i++) {
+            waited[i] += dt;
+        }
+
+        int decided = 0;
+        boolean outOfTime = start >= deadline;
+        lastCheck = System.nanoTime();
+        if (order == Order.NEAREST_FIRST && !outOfTime) {
+            near.clear();
+            float nearSquared = NEAR_DISTANCE * NEAR_DISTANCE;
+            for (int i = 0; i < size; i++) {
+                float dx = enemies.getX(i) + EnemyStore.WIDTH / 2f - playerX;
+                float dy = enemies.getY(i) + EnemyStore.HEIGHT / 2f - playerY;
+                if (dx * dx + dy * dy <= nearSquared) {
+                    near.add(i);
+                }
+            }
+            lastCheck = System.nanoTime();
+            // Continue where the last step stopped, in case the budget does not cover all near enemies
+            for (int turns = 0; !outOfTime && turns < near.size; turns++) {
+                nearCursor = nearCursor >= near.size ? 0 : nearCursor;
+                decide(enemies, near.get(nearCursor++), dt, flowField);
+                outOfTime = ++decided % DECISIONS_PER_CHECK == 0 && isOutOfTime();
+            }
+        }
+
+        // Go round-robin over the remaining enemies, the near enemies already decided in this step
+        for (int turns = 0; !outOfTime && turns < size; turns++) {
+            int i = cursor;
+            cursor = cursor + 1 >= size ? 0 : cursor + 1;
+            if (waited[i] == 0) {
+                continue;
+            }
+            decide(enemies, i, dt, flowField);
+            outOfTime = ++decided % DECISIONS_PER_CHECK == 0 && isOutOfTime();
+        }
+
+        long end = System.nanoTime();
+        finishStep(decided, dt, end - start);
+        if (decided > 0 && end > deadline) {
+            overruns++;
+            maxOverrun = Math.max(maxOverrun, end - deadline);
+        }
+    }
+
+    /**
+     * Checks whether another batch of decisions would exceed the budget, assuming it takes as long as the last one.
+     */
+    private boolean isOutOfTime() {
+        long now = System.nanoTime();
+        long batch = now - lastCheck;
+        lastCheck = now;
+        return now + batch > deadline;
+    }
+
+    /**
+     * Lets one enemy decide and updates its metrics.
+     */
+    private void decide(EnemyStore enemies, int i, float dt, FlowField flowField) {
+        enemies.decide(i, waited[i], dt, flowField);
+        longestWait = Math.max(longestWait, waited[i]);
+        waited[i] = 0;
+        decisions[i]++;
+    }
+
+    /**
+     * Updates the metrics at the end of a step.
+     */
+    private void finishStep(int decided, float dt, long nanos) {
+        steps++;
+        totalDecisions += decided;
+        lastDecisions = decided;
+        simulatedTime += dt;
+        lastNanos = nanos;
+    }
+
+    /**
+     * Resets all metrics, for example after a warm-up.
+     */
+    public void resetMetrics() {
+        Arrays.fill(decisions, 0);
+        steps = 0;
+        totalDecisions = 0;
+        lastDecisions = 0;
+        simulatedTime = 0;
+        longestWait = 0;
+        overruns = 0;
+        lastNanos = 0;
+        maxOverrun = 0;
+    }
+
+    /**
+     * Gets how often an enemy decided per simulated second since the metrics were reset.
+     *
+     * @param i The index of the enemy.
+     * @return The decisions per second.
+     */
+    public float getFrequency(int i) {
+        return simulatedTime > 0 ? decisions[i] / simulatedTime : 0;
+    }
+
+    /**
+     * Gets how often an enemy decided per simulated second on average.
+     *
+     * @param enemies The number of enemies.
+     * @return The average decisions per enemy and second.
+     */
+    public float getAverageFrequency(int enemies) {
+        return simulatedTime > 0 && enemies > 0 ? totalDecisions / (enemies * simulatedTime) : 0;
+    }
+
+    /**
+     * Gets the longest time an enemy waited for its decision.
+     *
+     * @return The longest wait in seconds.
+     */
+    public float getLongestWait() {
+        return longestWait;
+    }
+
+    /**
+     * Gets the number of steps since the metrics were reset.
+     *
+     * @return The number of steps.
+     */
+    public long getSteps() {
+        return steps;
+    }
+
+    /**
+     * Gets the number of decisions in the last step.
+     *
+     * @return The number of decisions.
+     */
+    public int getLastDecisions() {
+        return lastDecisions;
+    }
+
+    /**
+     * Gets the time the decisions of the last step took, only measured with a time budget.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getLastNanos() {
+        return lastNanos;
+    }
+
+    /**
+     * Gets the number of steps in which the decisions ended after the budget of their frame or step.
+     *
+     * @return The number of overruns.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+
+    /**
+     * Gets the largest amount of time by which the decisions of a step ended after the budget.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getMaxOverrun() {
+        return maxOverrun;
+    }
+}
@@ -0,0 +1,186 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The AllocationCheck class is a command line tool that runs the {@link FrameAllocationMonitor} without a window. For
+ * every map it plays frames of varying length the way the GameScreen does, only without drawing: the frame time is
+ * turned into steps of the {@link World} by a {@link FixedTimestep}, the enemies outside the view are updated less
+ * often, and the player position and the enemies in the view are interpolated between the last two steps. The player
+ * is moved by a seeded random walk. Frames in which the World reports an event are excluded, like in the game.
+ * Each map is first played once as a warm-up, so the JIT compiler has seen every branch of the measured run and does
+ * not compile or deoptimize, which may allocate, during it. Exits with status 1 if a frame after the warm-up allocated.
+ * <p>
+ * Usage: {@code AllocationCheck [--frames N] [--chase] [map files...]}, by default all maps in "maps" are played for
+ * 20000 frames each. Run it with -Xbatch, as the checkAllocations task does, otherwise a method compiled in the
+ * background may allocate in the frame its compilation finishes in.
+ */
+public class AllocationCheck {
+
+    //The seed of the enemy movement, of the random walk and of the frame times.
+    private static final long SEED = 42;
+
+    //The view of a 1536x864 window at the zoom of 0.75, with the margin the GameScreen draws and updates around it.
+    private static final float VIEW_WIDTH = 1152, VIEW_HEIGHT = 648;
+    private static final float CULL_MARGIN = 16;
+    private static final float LOD_MARGIN = 2 * OccupancyGrid.TILE_SIZE;
+    private static final float FAR_STEP_TIME = 0.1f;
+
+    //The maximum number of World steps per frame, the same as in the GameScreen.
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
+    //The sum of the interpolated enemy positions, read so the positions are not optimized away.
+    private static double positionSum;
+
+    /**
+     * Runs the check on the given maps.
+     *
+     * @param args Optional "--frames N" and "--chase", followed by the ".properties" files of the maps.
+     * @throws IOException If a map cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        int frames = 20_000;
+        boolean chase = false;
+        List<File> maps = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--frames") && i + 1 < args.length) {
+                frames = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--chase")) {
+                chase = true;
+            } else {
+                maps.add(new File(args[i]));
+            }
+        }
+        if (maps.isEmpty()) {
+            File[] files = new File("maps").listFiles((dir, name) -> name.endsWith(".properties"));
+            if (files != null) {
+                Arrays.sort(files);
+                maps.addAll(Arrays.asList(files));
+            }
+        }
+        // The maze objects are created without textures
+        TextureRegistry.setHeadless(true);
+
+        boolean passed = true;
+        for (File map : maps) {
+            passed &= check(map, frames, chase);
+        }
+        System.out.println(passed ? "All allocation checks passed" : "Allocation checks FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays the frames of one map and reports the frames that allocated.
+     *
+     * @return True if no frame after the warm-up allocated.
+     */
+    private static boolean check(File map, int frames, boolean chase) throws IOException {
+        MazeLayout layout = SimulationBenchmark.loadLayout(map);
+
+        // The frame times and the walk are drawn before, so the frames themselves only run the game
+        Random random = new Random(SEED);
+        float[] deltas = new float[frames];
+        int[] directions = new int[frames];
+        for (int i = 0; i < frames; i++) {
+            // Mostly 60 to 144 frames per second, and every 500th frame a hitch that needs catching up
+            deltas[i] = i % 500 == 499 ? 0.1f : 1 / 144f + random.nextFloat() * (1 / 60f - 1 / 144f);
+            directions[i] = i % 30 == 0 ? random.nextInt(4) : directions[i - 1];
+        }
+
+        // The warm-up is measured as well, so the measuring itself is compiled, but its result is not used
+        FrameAllocationMonitor warmUp = new FrameAllocationMonitor(true);
+        warmUp.setLogging(false);
+        play(layout, chase, deltas, directions, warmUp);
+        FrameAllocationMonitor monitor = new FrameAllocationMonitor(true);
+        World world = play(layout, chase, deltas, directions, monitor);
+        System.out.printf("%s: %d frames, %d enemies%n", map.getPath(), frames, world.getEnemies().size());
+        try {
+            monitor.report();
+            return true;
+        } catch (IllegalStateException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Plays the given frames on a new World of the layout, measured by the monitor.
+     *
+     * @return The World after the last frame.
+     */
+    private static World play(MazeLayout layout, boolean chase, float[] deltas, int[] directions,
+                              FrameAllocationMonitor monitor) {
+        World world = new World(layout, ReadPropertiesFile.createMazeObjects(layout), new Character(), new Random(SEED));
+        world.setChaseMode(chase);
+        Screen screen = new Screen(world, monitor);
+        for (int frame = 0; frame < deltas.length; frame++) {
+            screen.render(deltas[frame], directions[frame]);
+        }
+        return world;
+    }
+
+    /**
+     * The simulation part of the GameScreen. Every frame is a call of its own, like a render of the GameScreen, so
+     * the JIT compiler never replaces a running loop over all frames, which may allocate.
+     */
+    private static class Screen {
+        final World world;
+        final FrameAllocationMonitor monitor;
+        final FixedTimestep timestep = new FixedTimestep(FixedTimestep.DEFAULT_STEPS_PER_SECOND, MAX_STEPS_PER_FRAME);
+        final InputState input = new InputState();
+        final Rectangle view = new Rectangle();
+        final IntArray visibleEnemies;
+
+        Screen(World world, FrameAllocationMonitor monitor) {
+            this.world = world;
+            this.monitor = monitor;
+            float lodDistance = (float) Math.sqrt(VIEW_WIDTH * VIEW_WIDTH + VIEW_HEIGHT * VIEW_HEIGHT) / 2 + LOD_MARGIN;
+            world.getEnemies().setLevelOfDetail(lodDistance, FAR_STEP_TIME);
+            // Large enough for all enemies, so finding the visible enemies never grows it, like in the GameScreen
+            visibleEnemies = new IntArray(world.getEnemies().size());
+        }
+
+        /**
+         * Plays one frame: steps the World and finds and interpolates the enemies in the view.
+         */
+        void render(float delta, int direction) {
+            monitor.beginFrame();
+            input.set(direction == 0, direction == 1, direction == 2, direction == 3);
+
+            int events = 0;
+            int steps = timestep.advance(delta);
+            world.getAiScheduler().beginFrame();
+            for (int i = 0; i < steps; i++) {
+                events |= world.step(timestep.getStep(), input);
+            }
+            if (events != 0) {
+                monitor.ignoreFrame();
+            }
+
+            float alpha = timestep.getAlpha();
+            float playerX = world.getPlayerX(alpha);
+            float playerY = world.getPlayerY(alpha);
+            view.set(playerX - VIEW_WIDTH / 2 - CULL_MARGIN, playerY - VIEW_HEIGHT / 2 - CULL_MARGIN,
+                    VIEW_WIDTH + 2 * CULL_MARGIN, VIEW_HEIGHT + 2 * CULL_MARGIN);
+            world.findEnemies(view, visibleEnemies);
+            EnemyStore enemies = world.getEnemies();
+            float sum = 0;
+            for (int k = 0; k < visibleEnemies.size; k++) {
+                int i = visibleEnemies.get(k);
+                sum += enemies.getX(i, alpha) + enemies.getY(i, alpha);
+            }
+            // The interpolated positions are used, so they are not optimized away
+            positionSum += sum;
+            monitor.endFrame();
+        }
+    }
+}
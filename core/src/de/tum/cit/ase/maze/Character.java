@@ -4,11 +4,27 @@
  * Represents the player character in the maze game.
  */
 public class Character{
+
+    /**
+     * Listener that is notified when the number of lives or the key status of a character changes.
+     */
+    public interface Listener {
+        /**
+         * Called after the number of lives or the key status changed.
+         *
+         * @param character The character that changed.
+         */
+        void characterChanged(Character character);
+    }
+
     private int numOfLives;
     private boolean keyCollected;
-    private String direction;
+    private Direction direction;
     private boolean isPaused = false;
 
+    //The listener notified about changes of the lives or the key, or null.
+    private Listener listener;
+
     /**
      * Default constructor for the Character class.
      * Initializes the character with 5 lives, no collected key, and facing down.
@@ -16,7 +32,7 @@
     public Character() {
         numOfLives = 5;
         keyCollected = false;
-        direction = "DOWN";
+        direction = Direction.DOWN;
     }
 
     /**
@@ -42,7 +58,10 @@ public int getNumOfLives() {
      * @param numOfLives The new number of lives to set.
      */
     public void setNumOfLives(int numOfLives) {
-        this.numOfLives = numOfLives;
+        if (this.numOfLives != numOfLives) {
+            this.numOfLives = numOfLives;
+            notifyListener();
+        }
     }
 
     /**
@@ -60,15 +79,36 @@ public boolean isKeyCollected() {
      * @param keyCollected True if the key is collected, false otherwise.
      */
     public void setKeyCollected(boolean keyCollected) {
-        this.keyCollected = keyCollected;
+        if (this.keyCollected != keyCollected) {
+            this.keyCollected = keyCollected;
+            notifyListener();
+        }
+    }
+
+    /**
+     * Sets the listener that is notified when the number of lives or the key status changes.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Notifies the listener about a change, if there is one.
+     */
+    private void notifyListener() {
+        if (listener != null) {
+            listener.characterChanged(this);
+        }
     }
 
     /**
      * Gets the current direction the character is facing.
      *
-     * @return The direction as a string ("UP", "DOWN", "LEFT", "RIGHT", etc.).
+     * @return The direction (DOWN, UP, LEFT, RIGHT or BACK).
      */
-    public String getDirection() {
+    public Direction getDirection() {
         return direction;
     }
 
@@ -77,7 +117,7 @@ public String getDirection() {
      *
      * @param direction The new direction for the character.
      */
-    public void setDirection(String direction) {
+    public void setDirection(Direction direction) {
         this.direction = direction;
     }
 
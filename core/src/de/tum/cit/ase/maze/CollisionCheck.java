@@ -0,0 +1,238 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The CollisionCheck class is a command line tool that checks the {@link OccupancyGrid} against
+ * {@link Rectangle#overlaps(Rectangle)} on the bounds of the walls, exits and the entry, which is how collisions were
+ * detected before the grid. For every map it tests rectangles of the size of the player and of the enemies at random
+ * positions, and at every tile at the positions where a rectangle just touches, just overlaps or just leaves a tile
+ * border. Every query of the grid must give the same answer as testing the bounds of the objects. Exits with status 1
+ * if an answer differs.
+ * <p>
+ * Usage: {@code CollisionCheck [--random N] [map files...]}, by default all maps in "maps" are checked with 200000
+ * random rectangles each.
+ */
+public class CollisionCheck {
+
+    //The seed of the random rectangles.
+    private static final long SEED = 42;
+
+    //The rectangles tested: the bounds of the player and of an enemy.
+    private static final float[][] SIZES = {{30, 44}, {EnemyStore.WIDTH, EnemyStore.HEIGHT}};
+
+    //The number of differences printed per map before they are only counted.
+    private static final int MAX_REPORTED = 10;
+
+    /**
+     * The bounds of the objects of one type, sorted by their x-coordinate, so the objects near a rectangle are found
+     * without the grid that is checked.
+     */
+    private static class Objects {
+        final Rectangle[] bounds;
+        final float[] xs;
+        final int[] tiles;
+        float maxWidth;
+
+        Objects(List<? extends MazeObject> mazeObjects, OccupancyGrid grid) {
+            MazeObject[] sorted = mazeObjects.toArray(new MazeObject[0]);
+            Arrays.sort(sorted, (a, b) -> Float.compare(a.getBounds().x, b.getBounds().x));
+            bounds = new Rectangle[sorted.length];
+            xs = new float[sorted.length];
+            tiles = new int[sorted.length];
+            for (int i = 0; i < sorted.length; i++) {
+                bounds[i] = sorted[i].getBounds();
+                xs[i] = bounds[i].x;
+                tiles[i] = grid.tileIndexOf(sorted[i]);
+                maxWidth = Math.max(maxWidth, bounds[i].width);
+            }
+        }
+
+        /**
+         * Checks whether the rectangle overlaps the bounds of any object, and collects the tiles of those objects.
+         */
+        boolean overlaps(Rectangle rectangle, IntArray overlapped) {
+            overlapped.clear();
+            int first = Arrays.binarySearch(xs, rectangle.x - maxWidth);
+            first = first < 0 ? -first - 1 : first;
+            // Equal coordinates may start before the found one
+            while (first > 0 && xs[first - 1] >= rectangle.x - maxWidth) {
+                first--;
+            }
+            for (int i = first; i < xs.length && xs[i] < rectangle.x + rectangle.width; i++) {
+                if (rectangle.overlaps(bounds[i])) {
+                    overlapped.add(tiles[i]);
+                }
+            }
+            return overlapped.size > 0;
+        }
+    }
+
+    /**
+     * Runs the check on the given maps.
+     *
+     * @param args Optional "--random N", followed by the ".properties" files of the maps.
+     * @throws IOException If a map cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        int randomRectangles = 200_000;
+        List<File> maps = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--random") && i + 1 < args.length) {
+                randomRectangles = Integer.parseInt(args[++i]);
+            } else {
+                maps.add(new File(args[i]));
+            }
+        }
+        if (maps.isEmpty()) {
+            File[] files = new File("maps").listFiles((dir, name) -> name.endsWith(".properties"));
+            if (files != null) {
+                Arrays.sort(files);
+                maps.addAll(Arrays.asList(files));
+            }
+        }
+        // The maze objects are created without textures
+        TextureRegistry.setHeadless(true);
+
+        boolean passed = true;
+        for (File map : maps) {
+            passed &= check(map, randomRectangles);
+        }
+        System.out.println(passed ? "All collision checks passed" : "Collision checks FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Compares the grid with the bounds of the objects of one map and prints the number of compared rectangles.
+     *
+     * @return True if all answers were the same.
+     */
+    private static boolean check(File map, int randomRectangles) throws IOException {
+        MazeLayout layout = SimulationBenchmark.loadLayout(map);
+        World world = new World(layout, ReadPropertiesFile.createMazeObjects(layout), new Character(), new Random(SEED));
+
+        // The same grid the World builds
+        OccupancyGrid grid = new OccupancyGrid(layout.getWidth(), layout.getHeight());
+        for (Wall wall : world.getWalls()) {
+            grid.mark(wall, MazeLayout.WALL);
+        }
+        for (Exit exit : world.getExits()) {
+            grid.mark(exit, MazeLayout.EXIT);
+        }
+        grid.mark(world.getEntry(), MazeLayout.ENTRY);
+
+        Objects walls = new Objects(toList(world.getWalls()), grid);
+        Objects exits = new Objects(toList(world.getExits()), grid);
+        Objects entry = new Objects(List.of(world.getEntry()), grid);
+        Comparison comparison = new Comparison(map.getPath(), grid, walls, exits, entry);
+
+        // Rectangles at random positions, also partly outside the maze
+        Random random = new Random(SEED);
+        float mazeWidth = layout.getWidth() * OccupancyGrid.TILE_SIZE;
+        float mazeHeight = layout.getHeight() * OccupancyGrid.TILE_SIZE;
+        for (int i = 0; i < randomRectangles; i++) {
+            float[] size = SIZES[i % SIZES.length];
+            float x = random.nextFloat() * (mazeWidth + 2 * size[0]) - size[0];
+            float y = random.nextFloat() * (mazeHeight + 2 * size[1]) - size[1];
+            comparison.compare(x, y, size[0], size[1]);
+        }
+
+        // Rectangles touching, just overlapping and just leaving the borders of every tile
+        for (float[] size : SIZES) {
+            float[] offsetsX = borderOffsets(size[0]);
+            float[] offsetsY = borderOffsets(size[1]);
+            for (int tileY = 0; tileY < layout.getHeight(); tileY++) {
+                for (int tileX = 0; tileX < layout.getWidth(); tileX++) {
+                    for (float offsetX : offsetsX) {
+                        for (float offsetY : offsetsY) {
+                            comparison.compare(tileX * OccupancyGrid.TILE_SIZE + offsetX,
+                                    tileY * OccupancyGrid.TILE_SIZE + offsetY, size[0], size[1]);
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.printf("%s: %d rectangles compared, %d differences%n", map.getPath(), comparison.compared,
+                comparison.differences);
+        return comparison.differences == 0;
+    }
+
+    /**
+     * Gets the offsets from the lower border of a tile at which a rectangle of the given size touches, just overlaps
+     * or just leaves the lower or the upper border of the tile.
+     */
+    private static float[] borderOffsets(float size) {
+        float tile = OccupancyGrid.TILE_SIZE;
+        return new float[]{-size, Math.nextUp(-size), -1, Math.nextDown(0f), 0, Math.nextUp(0f), 1,
+                tile - size - 1, tile - size, Math.nextDown(tile), tile - 1, tile};
+    }
+
+    /**
+     * Compares the answers of the grid and of the bounds for single rectangles and counts the differences.
+     */
+    private static class Comparison {
+        final String name;
+        final OccupancyGrid grid;
+        final Objects walls, exits, entry;
+        final Rectangle rectangle = new Rectangle();
+        final IntArray expected = new IntArray(), actual = new IntArray(), ignored = new IntArray();
+        long compared;
+        long differences;
+
+        Comparison(String name, OccupancyGrid grid, Objects walls, Objects exits, Objects entry) {
+            this.name = name;
+            this.grid = grid;
+            this.walls = walls;
+            this.exits = exits;
+            this.entry = entry;
+        }
+
+        /**
+         * Compares all queries of the grid for one rectangle.
+         */
+        void compare(float x, float y, float width, float height) {
+            rectangle.set(x, y, width, height);
+            compared++;
+            boolean wall = walls.overlaps(rectangle, ignored);
+            boolean door = entry.overlaps(rectangle, ignored);
+            boolean exit = exits.overlaps(rectangle, expected);
+            expected.sort();
+            grid.overlappingTiles(rectangle, MazeLayout.EXIT, actual);
+            actual.sort();
+
+            if (grid.overlaps(rectangle, MazeLayout.WALL) != wall
+                    || grid.overlaps(rectangle, MazeLayout.EXIT) != exit
+                    || grid.overlaps(rectangle, MazeLayout.ENTRY) != door
+                    || grid.overlapsAny(x, y, width, height) != (wall || exit || door)
+                    || !actual.equals(expected)) {
+                if (differences++ < MAX_REPORTED) {
+                    System.out.printf("%s: the grid differs for the rectangle %s, %s, %s x %s%n", name, x, y,
+                            width, height);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the objects of an Array into a List.
+     */
+    private static <T extends MazeObject> List<T> toList(Array<T> array) {
+        List<T> list = new ArrayList<>(array.size);
+        for (T item : array) {
+            list.add(item);
+        }
+        return list;
+    }
+}
@@ -0,0 +1,213 @@
+package de.tum.cit.ase.maze;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * The CompiledMap class reads and writes the compiled binary map format (".mzb").
+ * A compiled map sits next to its ".properties" file and contains a fixed size header followed by the packed tile grid:
+ * <pre>
+ * int   magic ("MZB" + 0)        long sourceLength         int width           int tilesChecksum (CRC32)
+ * int   version                  long sourceLastModified   int height          byte[width * height] tiles
+ *                                int  sourceChecksum       int[6] object counts
+ * </pre>
+ * The source fields identify the ".properties" file the map was compiled from, so compiled maps whose source
+ * changed since are recognised as stale and ignored until they are rebuilt. If only the modification time of the
+ * source changed, the new time is stored in the header, so later reads do not compute the checksum again.
+ */
+public class CompiledMap {
+
+    //File extension of compiled maps.
+    public static final String EXTENSION = ".mzb";
+
+    //Version of the binary layout, compiled maps with another version are rebuilt.
+    public static final int VERSION = 1;
+
+    private static final int MAGIC = 0x4D5A4200;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 8 + 4 + 4 + 4 + 4 * MazeLayout.OBJECT_TYPES + 4;
+    private static final int SOURCE_LAST_MODIFIED_OFFSET = 4 + 4 + 8;
+
+    private CompiledMap() {
+    }
+
+    /**
+     * Gets the compiled map file that belongs to a ".properties" map file.
+     *
+     * @param source The ".properties" map file.
+     * @return The ".mzb" file next to it, which does not need to exist.
+     */
+    public static File compiledFileFor(File source) {
+        String name = source.getName();
+        int extension = name.lastIndexOf('.');
+        String baseName = extension > 0 ? name.substring(0, extension) : name;
+        return new File(source.getParentFile(), baseName + EXTENSION);
+    }
+
+    /**
+     * Loads the compiled version of a map through a memory mapped file.
+     *
+     * @param source The ".properties" map file the compiled map was built from.
+     * @return The layout of the maze, or null if there is no compiled map, or it is stale, from another version or corrupt.
+     * @throws IOException If the compiled map exists but cannot be read.
+     */
+    public static MazeLayout read(File source) throws IOException {
+        File compiled = compiledFileFor(source);
+        if (!compiled.isFile() || compiled.length() < HEADER_SIZE) {
+            return null;
+        }
+
+        try (FileChannel channel = FileChannel.open(compiled.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                return null;
+            }
+            long sourceLength = buffer.getLong();
+            long sourceLastModified = buffer.getLong();
+            int sourceChecksum = buffer.getInt();
+            if (!isSourceUnchanged(source, sourceLength, sourceLastModified, sourceChecksum)) {
+                return null;
+            }
+
+            int width = buffer.getInt();
+            int height = buffer.getInt();
+            int[] counts = new int[MazeLayout.OBJECT_TYPES];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buffer.getInt();
+            }
+            int tilesChecksum = buffer.getInt();
+            if (width < 0 || height < 0 || buffer.remaining() != width * height) {
+                return null;
+            }
+
+            byte[] tiles = new byte[width * height];
+            buffer.get(tiles);
+            if (checksum(tiles) != tilesChecksum) {
+                return null;
+            }
+            MazeLayout layout = new MazeLayout(width, height, tiles);
+            for (int i = 0; i < counts.length; i++) {
+                if (layout.getCount(i) != counts[i]) {
+                    return null;
+                }
+            }
+            long currentLastModified = source.lastModified();
+            if (currentLastModified != sourceLastModified) {
+                // Only the modification time changed, for example after a checkout, the checksum matched
+                updateSourceLastModified(compiled, currentLastModified);
+            }
+            return layout;
+        }
+    }
+
+    /**
+     * Checks whether a compiled map exists for the given source and is still up to date.
+     *
+     * @param source The ".properties" map file.
+     * @return True if the compiled map can be used instead of parsing the source.
+     */
+    public static boolean isUpToDate(File source) {
+        try {
+            return read(source) != null;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Writes the compiled version of a map next to its source. The file is written to a temporary file first
+     * and then moved into place, so a reader never sees a partially written map.
+     *
+     * @param source The ".properties" map file the layout was parsed from.
+     * @param layout The parsed layout of the maze.
+     * @return The written ".mzb" file.
+     * @throws IOException If the compiled map cannot be written.
+     */
+    public static File write(File source, MazeLayout layout) throws IOException {
+        byte[] sourceBytes = Files.readAllBytes(source.toPath());
+        byte[] tiles = new byte[layout.getWidth() * layout.getHeight()];
+        for (int y = 0; y < layout.getHeight(); y++) {
+            for (int x = 0; x < layout.getWidth(); x++) {
+                tiles[y * layout.getWidth() + x] = layout.getTile(x, y);
+            }
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + tiles.length);
+        buffer.putInt(MAGIC);
+        buffer.putInt(VERSION);
+        buffer.putLong(sourceBytes.length);
+        buffer.putLong(source.lastModified());
+        buffer.putInt(checksum(sourceBytes));
+        buffer.putInt(layout.getWidth());
+        buffer.putInt(layout.getHeight());
+        for (int i = 0; i < MazeLayout.OBJECT_TYPES; i++) {
+            buffer.putInt(layout.getCount(i));
+        }
+        buffer.putInt(checksum(tiles));
+        buffer.put(tiles);
+
+        File compiled = compiledFileFor(source);
+        Path temporary = Files.createTempFile(compiled.getAbsoluteFile().getParentFile().toPath(), compiled.getName(), ".tmp");
+        try {
+            Files.write(temporary, buffer.array());
+            Files.move(temporary, compiled.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return compiled;
+    }
+
+    /**
+     * Checks whether the source file is still the one the map was compiled from.
+     * Length and modification time are compared first; if only the modification time differs (for example after
+     * a fresh checkout) the content checksum decides.
+     */
+    private static boolean isSourceUnchanged(File source, long length, long lastModified, int sourceChecksum) throws IOException {
+        if (!source.isFile() || source.length() != length) {
+            return false;
+        }
+        if (source.lastModified() == lastModified) {
+            return true;
+        }
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[8192];
+        try (InputStream input = Files.newInputStream(source.toPath())) {
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                crc.update(chunk, 0, read);
+            }
+        }
+        return (int) crc.getValue() == sourceChecksum;
+    }
+
+    /**
+     * Stores a new modification time of the source in the header of a compiled map, so the next read takes the fast
+     * path again. Only the 8 bytes of the time are written; if that fails, the next read compares the checksum again.
+     */
+    private static void updateSourceLastModified(File compiled, long lastModified) {
+        ByteBuffer time = ByteBuffer.allocate(8).putLong(lastModified);
+        time.flip();
+        try (FileChannel channel = FileChannel.open(compiled.toPath(), StandardOpenOption.WRITE)) {
+            channel.write(time, SOURCE_LAST_MODIFIED_OFFSET);
+        } catch (IOException e) {
+            // The compiled map stays usable, only the checksum is computed once more
+        }
+    }
+
+    /**
+     * Computes the CRC32 checksum of the given bytes.
+     */
+    private static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+}
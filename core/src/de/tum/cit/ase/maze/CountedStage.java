@@ -0,0 +1,51 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * The CountedStage class is a Stage that counts how many stages are alive, that is created and not yet disposed.
+ * All screens and the HUD create their stage through this class, so the navigation check of the
+ * {@link ScreenManager} finds a screen that creates a new stage without disposing the old one.
+ */
+public class CountedStage extends Stage {
+
+    //The number of stages created and not yet disposed.
+    private static int liveCount = 0;
+
+    //Whether this stage was disposed, so disposing it twice is only counted once.
+    private boolean disposed = false;
+
+    /**
+     * Constructor for CountedStage.
+     *
+     * @param viewport The viewport of the stage.
+     * @param batch    The batch the stage draws with, not disposed by the stage.
+     */
+    public CountedStage(Viewport viewport, Batch batch) {
+        super(viewport, batch);
+        liveCount++;
+    }
+
+    /**
+     * Disposes the stage and counts it as no longer alive.
+     */
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (!disposed) {
+            disposed = true;
+            liveCount--;
+        }
+    }
+
+    /**
+     * Gets the number of stages created and not yet disposed.
+     *
+     * @return The number of live stages.
+     */
+    public static int getLiveCount() {
+        return liveCount;
+    }
+}
@@ -0,0 +1,177 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The CullingCheck class is a command line tool that checks the culling of the GameScreen without a window. It
+ * generates mazes of growing size, looks at each from many random camera positions and counts the objects that would
+ * be submitted for drawing: the enemies found in the spatial grid of the World and the objects in the visible chunks
+ * of the {@link StaticGeometry}. For every view it checks that all objects overlapping the view are submitted and
+ * that every submitted object is near the view, so the submitted count is bounded by the size of the view and not
+ * by the size of the maze. Exits with status 1 if a check fails.
+ * <p>
+ * Usage: {@code CullingCheck [--view WIDTHxHEIGHT] [--views N] [maze sizes in tiles...]}, by default a view of
+ * 1152x648 pixels (a 1536x864 window at the zoom of 0.75) is checked at 1000 positions in mazes of 64, 128, 256 and 512
+ * tiles.
+ */
+public class CullingCheck {
+
+    //The time covered by one step of the World between two views.
+    private static final float STEP = 1 / 60f;
+
+    //The seed of the generated mazes and of the camera positions.
+    private static final long SEED = 42;
+
+    /**
+     * Runs the check on mazes of the given sizes.
+     *
+     * @param args Optional "--view WIDTHxHEIGHT" and "--views N", followed by the sizes of the mazes in tiles.
+     */
+    public static void main(String[] args) {
+        float viewWidth = 1152, viewHeight = 648;
+        int views = 1000;
+        ArrayList<Integer> sizes = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--view") && i + 1 < args.length) {
+                String[] size = args[++i].split("x");
+                viewWidth = Float.parseFloat(size[0]);
+                viewHeight = Float.parseFloat(size[1]);
+            } else if (args[i].equals("--views") && i + 1 < args.length) {
+                views = Integer.parseInt(args[++i]);
+            } else {
+                sizes.add(Integer.parseInt(args[i]));
+            }
+        }
+        if (sizes.isEmpty()) {
+            sizes.addAll(Arrays.asList(64, 128, 256, 512));
+        }
+        // The maze objects are created without textures
+        TextureRegistry.setHeadless(true);
+
+        boolean passed = true;
+        for (int side : sizes) {
+            passed &= check(side, viewWidth, viewHeight, views);
+        }
+        System.out.println(passed ? "All culling checks passed" : "Culling checks FAILED");
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Checks the culling in a generated maze and prints the submitted and the total number of objects.
+     *
+     * @return True if all checks passed.
+     */
+    private static boolean check(int side, float viewWidth, float viewHeight, int views) {
+        MazeLayout layout = generateLayout(side);
+        World world = new World(layout, ReadPropertiesFile.createMazeObjects(layout), new Character(), new Random(SEED));
+        StaticGeometry geometry = new StaticGeometry();
+        geometry.addAll(StaticGeometry.FLOOR, world.getTraps());
+        geometry.addAll(StaticGeometry.STRUCTURE, world.getWalls());
+        geometry.addAll(StaticGeometry.STRUCTURE, world.getExits());
+        geometry.add(StaticGeometry.STRUCTURE, world.getEntry());
+
+        EnemyStore enemies = world.getEnemies();
+        int total = geometry.getSpriteCount() + enemies.size();
+        Array<MazeObject> staticObjects = new Array<>();
+        staticObjects.addAll(world.getTraps());
+        staticObjects.addAll(world.getWalls());
+        staticObjects.addAll(world.getExits());
+        staticObjects.add(world.getEntry());
+
+        Random random = new Random(SEED);
+        InputState idle = new InputState();
+        Rectangle view = new Rectangle();
+        Rectangle near = new Rectangle();
+        IntArray found = new IntArray();
+        boolean[] submitted = new boolean[enemies.size()];
+        float chunkSize = StaticGeometry.CHUNK_TILES * OccupancyGrid.TILE_SIZE;
+        long sum = 0;
+        int max = 0;
+        int failures = 0;
+
+        for (int v = 0; v < views; v++) {
+            world.step(STEP, idle);
+            float mazeSize = side * OccupancyGrid.TILE_SIZE;
+            view.set(random.nextFloat() * mazeSize - viewWidth / 2, random.nextFloat() * mazeSize - viewHeight / 2,
+                    viewWidth, viewHeight);
+
+            // Enemies: every overlapping enemy is found, every found enemy is at most one cell away
+            world.findEnemies(view, found);
+            Arrays.fill(submitted, false);
+            near.set(view.x - 2 * SpatialGrid.CELL_SIZE, view.y - 2 * SpatialGrid.CELL_SIZE,
+                    view.width + 4 * SpatialGrid.CELL_SIZE, view.height + 4 * SpatialGrid.CELL_SIZE);
+            for (int k = 0; k < found.size; k++) {
+                int i = found.get(k);
+                submitted[i] = true;
+                if (!enemies.overlaps(i, near)) {
+                    failures++;
+                }
+            }
+            for (int i = 0; i < enemies.size(); i++) {
+                if (enemies.overlaps(i, view) && !submitted[i]) {
+                    failures++;
+                }
+            }
+
+            // Static objects: the visible chunks hold at least the overlapping objects, and at most the objects
+            // within one chunk of the view
+            int staticSubmitted = geometry.countVisible(StaticGeometry.FLOOR, view)
+                    + geometry.countVisible(StaticGeometry.STRUCTURE, view);
+            near.set(view.x - chunkSize, view.y - chunkSize, view.width + 2 * chunkSize, view.height + 2 * chunkSize);
+            int overlapping = 0, nearby = 0;
+            for (int i = 0; i < staticObjects.size; i++) {
+                Rectangle bounds = staticObjects.get(i).getBounds();
+                overlapping += bounds.overlaps(view) ? 1 : 0;
+                nearby += bounds.overlaps(near) ? 1 : 0;
+            }
+            if (staticSubmitted < overlapping || staticSubmitted > nearby) {
+                failures++;
+            }
+
+            int count = found.size + staticSubmitted;
+            sum += count;
+            max = Math.max(max, count);
+        }
+
+        System.out.printf("%dx%d tiles: %d sprites, submitted %.0f on average and %d at most (%.1f%%), %d failures%n",
+                side, side, total, (double) sum / views, max, 100.0 * max / total, failures);
+        return failures == 0;
+    }
+
+    /**
+     * Generates a square maze surrounded by walls, with a wall on every other tile of every other row, traps and
+     * enemies on random free tiles, the entry on the left, an exit on the right and a key near the entry.
+     *
+     * @param side The size of the maze in tiles.
+     * @return The generated layout.
+     */
+    static MazeLayout generateLayout(int side) {
+        byte[] tiles = new byte[side * side];
+        Arrays.fill(tiles, MazeLayout.EMPTY);
+        Random random = new Random(SEED);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                boolean border = x == 0 || y == 0 || x == side - 1 || y == side - 1;
+                if (border || (x % 2 == 0 && y % 2 == 0)) {
+                    tiles[y * side + x] = MazeLayout.WALL;
+                } else if (random.nextInt(100) < 5) {
+                    tiles[y * side + x] = MazeLayout.TRAP;
+                } else if (random.nextInt(100) < 3) {
+                    tiles[y * side + x] = MazeLayout.ENEMY;
+                }
+            }
+        }
+        tiles[side] = MazeLayout.ENTRY;
+        tiles[side * (side - 2) + side - 1] = MazeLayout.EXIT;
+        tiles[side + 1] = MazeLayout.KEY;
+        return new MazeLayout(side, side, tiles);
+    }
+}
@@ -0,0 +1,62 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The directions a character can face or move in. The ordinal of a direction is used as index into lookup tables,
+ * for example the images of the player character in {@link GameScreen#PLAYER_TEXTURES}, which are in the same order.
+ * The first four directions are the ones enemies move in, BACK is only used when the player leaves through an exit.
+ */
+public enum Direction {
+    DOWN(0, -1),
+    UP(0, 1),
+    LEFT(-1, 0),
+    RIGHT(1, 0),
+    BACK(0, 0);
+
+    //The number of directions an enemy can move in, the first directions of the enum.
+    public static final int MOVEMENT_DIRECTIONS = 4;
+
+    //All directions indexed by their ordinal, so a direction code can be turned into a direction without a copy.
+    private static final Direction[] VALUES = values();
+
+    //The movement along the x and y axis, -1, 0 or 1.
+    private final int dx, dy;
+
+    /**
+     * Constructor for Direction.
+     *
+     * @param dx The movement along the x axis.
+     * @param dy The movement along the y axis.
+     */
+    Direction(int dx, int dy) {
+        this.dx = dx;
+        this.dy = dy;
+    }
+
+    /**
+     * Gets the direction with the given ordinal.
+     *
+     * @param ordinal The ordinal of the direction.
+     * @return The direction.
+     */
+    public static Direction of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Gets the movement along the x axis.
+     *
+     * @return -1 for LEFT, 1 for RIGHT, otherwise 0.
+     */
+    public int getDx() {
+        return dx;
+    }
+
+    /**
+     * Gets the movement along the y axis.
+     *
+     * @return -1 for DOWN, 1 for UP, otherwise 0.
+     */
+    public int getDy() {
+        return dy;
+    }
+}
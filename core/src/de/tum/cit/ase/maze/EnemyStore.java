@@ -0,0 +1,746 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The EnemyStore class keeps the state of all enemies of a level in parallel primitive arrays, one entry per enemy:
+ * position, position before the last move, movement direction and timers. Enemies are identified by their index.
+ * Choosing directions, moving and pushing enemies out of walls are plain loops over these arrays, without an object,
+ * a String or a Rectangle per enemy.
+ * <p>
+ * These updates only read and write the state of one enemy, so the enemies are split into chunks of a fixed size,
+ * each with its own random number stream split from the seed. With many enemies, the chunks are updated in parallel
+ * on the common ForkJoinPool. Because the chunks do not depend on the number of threads, the result is the same as
+ * updating them one after another.
+ * <p>
+ * Enemies either walk in random directions, or chase the player by following a shared {@link FlowField}. Choosing a
+ * direction is a decision, which every enemy makes every step, or an {@link AiScheduler} makes for as many enemies as
+ * its time budget allows, while all enemies keep moving in the direction they decided on last.
+ * <p>
+ * With a level of detail set, only the enemies near the focus, usually the player, are updated every step. Enemies
+ * further away are updated once per {@link #setLevelOfDetail(float, float) far step time} and then cover the whole
+ * time since their last update at once. The updates of far enemies are staggered by their index, so the cost of a step
+ * mostly depends on the number of enemies near the player. A far step stays much shorter than a tile, so far enemies
+ * still bump into walls and are moved back like near ones.
+ */
+public class EnemyStore {
+
+    //The number of enemies per chunk, each chunk has its own random number stream.
+    public static final int CHUNK_SIZE = 1024;
+
+    //The number of enemies from which on chunks are updated in parallel, set with -Dmaze.parallelEnemies.
+    public static final int DEFAULT_PARALLEL_THRESHOLD = Integer.getInteger("maze.parallelEnemies", 4096);
+
+    //The size of an enemy in pixels.
+    public static final int WIDTH = 25;
+    public static final int HEIGHT = 40;
+
+    //The speed of an enemy in pixels per second.
+    public static final float SPEED = 125.0f;
+
+    //The direction code of an enemy that did not choose a direction yet, all other codes are Direction ordinals.
+    public static final byte NONE = -1;
+
+    //An enemy keeps its direction for at least this time before it may change it.
+    private static final float MIN_DIRECTION_TIME = 1;
+
+    //The movement in x and y direction of each direction code, looked up instead of switching on the direction.
+    private static final float[] DX = new float[Direction.MOVEMENT_DIRECTIONS];
+    private static final float[] DY = new float[Direction.MOVEMENT_DIRECTIONS];
+
+    static {
+        for (int d = 0; d < Direction.MOVEMENT_DIRECTIONS; d++) {
+            DX[d] = Direction.of(d).getDx();
+            DY[d] = Direction.of(d).getDy();
+        }
+    }
+
+    //The position of each enemy, and the position to go back to when it bumps into something.
+    private final float[] x, y, prevX, prevY;
+
+    //The position of each enemy at the start of the last step, used to interpolate for drawing.
+    private final float[] lastX, lastY;
+
+    //How long each enemy has walked in its direction, and how long it has touched the player.
+    private final float[] changeDirectionTimer, overlapTimer;
+
+    //The direction code of each enemy, the ordinal of its Direction or NONE before it chose one.
+    private final byte[] direction;
+
+    //The number of enemies.
+    private int size = 0;
+
+    //True once the game ended, then no enemy moves anymore.
+    private boolean paused = false;
+
+    //The random number stream of each chunk.
+    private final SplitMixRandom[] chunkRandoms;
+
+    //The tasks updating the chunks in parallel, reused every step.
+    private final UpdateTask updateTask = new UpdateTask();
+    private final ChunkTask[] chunkTasks;
+
+    //The number of enemies from which on chunks are updated in parallel.
+    private int parallelThreshold = DEFAULT_PARALLEL_THRESHOLD;
+
+    /**
+     * Variables for the level of detail
+     */
+    private float lodDistance = 0;
+    private float farStepTime = 0;
+    private float focusX, focusY;
+    //The time each enemy was not updated for.
+    private final float[] skipped;
+    //The number of updates so far, far enemies are updated when it matches their index.
+    private long updates = 0;
+    //The number of steps between two updates of a far enemy in the current update.
+    private int farInterval = 1;
+    //The number of enemies updated in the last update, per chunk.
+    private final int[] chunkUpdated;
+
+    //The arguments of the current parallel update, read by the chunk tasks.
+    private float updateDt;
+    private OccupancyGrid updateOccupancy;
+    private FlowField updateFlowField;
+    private boolean updateDecide;
+
+    /**
+     * Constructor for EnemyStore.
+     *
+     * @param capacity The maximum number of enemies.
+     * @param seed     The seed of the random number streams choosing the directions.
+     */
+    public EnemyStore(int capacity, long seed) {
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        lastX = new float[capacity];
+        lastY = new float[capacity];
+        changeDirectionTimer = new float[capacity];
+        overlapTimer = new float[capacity];
+        direction = new byte[capacity];
+        skipped = new float[capacity];
+
+        int chunks = (capacity + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplitMixRandom seedRandom = new SplitMixRandom(seed);
+        chunkRandoms = new SplitMixRandom[chunks];
+        chunkTasks = new ChunkTask[chunks];
+        chunkUpdated = new int[chunks];
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            chunkRandoms[chunk] = seedRandom.split();
+            chunkTasks[chunk] = new ChunkTask(chunk);
+        }
+    }
+
+    /**
+     * Adds an enemy that stands still until it chooses its first direction.
+     *
+     * @param enemyX The x-coordinate of the enemy.
+     * @param enemyY The y-coordinate of the enemy.
+     * @return The index of the new enemy.
+     */
+    public int add(float enemyX, float enemyY) {
+        int i = size++;
+        x[i] = prevX[i] = lastX[i] = enemyX;
+        y[i] = prevY[i] = lastY[i] = enemyY;
+        direction[i] = NONE;
+        return i;
+    }
+
+    /**
+     * Remembers the position of every enemy before the next step, for interpolation.
+     */
+    public void recordLastPositions() {
+        System.arraycopy(x, 0, lastX, 0, size);
+        System.arraycopy(y, 0, lastY, 0, size);
+    }
+
+    /**
+     * Updates all enemies for one step: enemies that walked into a wall, an exit or the entry are moved back,
+     * then every enemy may decide on a new direction and moves. Above the parallel threshold, the chunks of enemies
+     * are updated in parallel.
+     *
+     * @param dt        The time in seconds the step covers.
+     * @param occupancy The tiles blocked by walls, exits and the entry.
+     * @param flowField The flow field towards the player if the enemies chase the player, or null if they walk
+     *                  in random directions.
+     * @param decide    False if the decisions were already made by {@link #decide(int, float, float, FlowField)},
+     *                  then the enemies only move.
+     */
+    public void update(float dt, OccupancyGrid occupancy, FlowField flowField, boolean decide) {
+        int chunks = chunkCount();
+        updates++;
+        farInterval = lodDistance > 0 ? Math.max(1, Math.round(farStepTime / dt)) : 1;
+        if (size >= parallelThreshold && chunks > 1) {
+            updateDt = dt;
+            updateOccupancy = occupancy;
+            updateFlowField = flowField;
+            updateDecide = decide;
+            updateTask.reinitialize();
+            ForkJoinPool.commonPool().invoke(updateTask);
+            updateOccupancy = null;
+            updateFlowField = null;
+        } else {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                updateChunk(chunk, dt, occupancy, flowField, decide);
+            }
+        }
+    }
+
+    /**
+     * Updates the enemies of one chunk. Every enemy that is due is moved back if it is blocked, decides on a
+     * direction and moves, over the time since its last update.
+     *
+     * @param chunk     The index of the chunk.
+     * @param dt        The time in seconds the step covers.
+     * @param occupancy The tiles blocked by walls, exits and the entry.
+     * @param flowField The flow field towards the player, or null.
+     * @param decide    True if the enemies decide on their direction.
+     */
+    private void updateChunk(int chunk, float dt, OccupancyGrid occupancy, FlowField flowField, boolean decide) {
+        int from = chunk * CHUNK_SIZE;
+        int to = Math.min(size, from + CHUNK_SIZE);
+        SplitMixRandom random = chunkRandoms[chunk];
+        int updated = 0;
+        // Counts up to the far interval along with the index, a far enemy is due when it is 0
+        int phase = (int) ((updates + from) % farInterval);
+        for (int i = from; i < to; i++, phase = phase + 1 == farInterval ? 0 : phase + 1) {
+            float enemyDt = dueTime(i, dt, phase == 0);
+            if (enemyDt == 0) {
+                continue;
+            }
+            updated++;
+            if (occupancy.overlapsAny(x[i], y[i], WIDTH, HEIGHT)) {
+                rollBack(i);
+            }
+            if (decide) {
+                decide(i, enemyDt, enemyDt, flowField, random);
+            }
+            if (!paused) {
+                moveEnemy(i, direction[i], enemyDt * SPEED);
+            }
+        }
+        chunkUpdated[chunk] = updated;
+    }
+
+    /**
+     * Checks whether an enemy is updated in the current step. Enemies near the focus are updated every step, far
+     * enemies only every few steps, and collect the time in between.
+     *
+     * @param farDue True if the enemy is due in this step even if it is far away.
+     * @return The time in seconds the update of the enemy covers, or 0 if it is not updated in this step.
+     */
+    private float dueTime(int i, float dt, boolean farDue) {
+        if (!farDue) {
+            float dx = x[i] + WIDTH / 2f - focusX;
+            float dy = y[i] + HEIGHT / 2f - focusY;
+            if (dx * dx + dy * dy > lodDistance * lodDistance) {
+                skipped[i] += dt;
+                return 0;
+            }
+        }
+        float enemyDt = skipped[i] + dt;
+        skipped[i] = 0;
+        return enemyDt;
+    }
+
+    /**
+     * Lets one enemy decide on its direction, with the random number stream of its chunk. Used by the
+     * {@link AiScheduler}, which decides for the enemies one after another before they move.
+     *
+     * @param i         The index of the enemy.
+     * @param waited    The time in seconds since the enemy decided last.
+     * @param dt        The time in seconds the current step covers.
+     * @param flowField The flow field towards the player, or null if the enemy walks in random directions.
+     */
+    public void decide(int i, float waited, float dt, FlowField flowField) {
+        decide(i, waited, dt, flowField, chunkRandoms[i / CHUNK_SIZE]);
+    }
+
+    /**
+     * Lets one enemy decide on its direction, either randomly or along the flow field.
+     */
+    private void decide(int i, float waited, float dt, FlowField flowField, SplitMixRandom random) {
+        if (flowField == null) {
+            chooseDirection(i, waited, random);
+        } else {
+            chase(i, waited, dt * SPEED, flowField, random);
+        }
+    }
+
+    /**
+     * Lets one enemy choose a new random direction. At every decision, the direction timer of the enemy is compared
+     * with a new random time between 1 and 5 seconds, and the enemy changes its direction once its timer reached that
+     * time. The random time is only drawn once the timer reached the lower bound, since the comparison cannot succeed
+     * before. Enemies without a direction choose one right away.
+     */
+    private void chooseDirection(int i, float waited, SplitMixRandom random) {
+        float timer = changeDirectionTimer[i] += waited;
+        if (direction[i] == NONE || (timer >= MIN_DIRECTION_TIME && timer >= random.nextDouble(MIN_DIRECTION_TIME, 5))) {
+            direction[i] = (byte) random.nextInt(Direction.MOVEMENT_DIRECTIONS);
+            changeDirectionTimer[i] = 0;
+        }
+    }
+
+    /**
+     * Lets one enemy head towards the player along the flow field. The enemy looks up the direction of the tile under
+     * its center. Before it turns into a corridor, it first lines up with the center of its tile, so it does not
+     * bump into the corner. In the tile of the player it walks straight towards the player, and enemies on tiles
+     * that cannot reach the player keep walking in random directions.
+     *
+     * @param distance The distance the enemy moves in the current step, the tolerance for lining up.
+     */
+    private void chase(int i, float waited, float distance, FlowField flowField, SplitMixRandom random) {
+        float centerX = x[i] + WIDTH / 2f;
+        float centerY = y[i] + HEIGHT / 2f;
+        int tileX = MathUtils.floor(centerX / OccupancyGrid.TILE_SIZE);
+        int tileY = MathUtils.floor(centerY / OccupancyGrid.TILE_SIZE);
+        int d = flowField.getDirection(tileX, tileY);
+
+        if (d == NONE) {
+            if (flowField.getDistance(tileX, tileY) != 0) {
+                // The player cannot be reached from here
+                chooseDirection(i, waited, random);
+                return;
+            }
+            // In the tile of the player, walk straight towards the player along the longer axis
+            float toX = flowField.getTargetX() - centerX;
+            float toY = flowField.getTargetY() - centerY;
+            if (Math.abs(toX) > Math.abs(toY)) {
+                d = toX > 0 ? Direction.RIGHT.ordinal() : Direction.LEFT.ordinal();
+            } else {
+                d = toY > 0 ? Direction.UP.ordinal() : Direction.DOWN.ordinal();
+            }
+        } else {
+            // Line up with the center of the tile across the direction of the flow first
+            float tileCenterX = tileX * OccupancyGrid.TILE_SIZE + OccupancyGrid.TILE_SIZE / 2f;
+            float tileCenterY = tileY * OccupancyGrid.TILE_SIZE + OccupancyGrid.TILE_SIZE / 2f;
+            if (DX[d] != 0 && Math.abs(centerY - tileCenterY) > distance) {
+                d = centerY < tileCenterY ? Direction.UP.ordinal() : Direction.DOWN.ordinal();
+            } else if (DY[d] != 0 && Math.abs(centerX - tileCenterX) > distance) {
+                d = centerX < tileCenterX ? Direction.RIGHT.ordinal() : Direction.LEFT.ordinal();
+            }
+        }
+        direction[i] = (byte) d;
+        changeDirectionTimer[i] = 0;
+    }
+
+    /**
+     * Moves one enemy in a direction. The previous position is only updated along the axis the enemy moves on.
+     */
+    private void moveEnemy(int i, int d, float distance) {
+        if (d == NONE) {
+            return;
+        }
+        if (DX[d] != 0) {
+            prevX[i] = x[i];
+            x[i] += DX[d] * distance;
+        } else {
+            prevY[i] = y[i];
+            y[i] += DY[d] * distance;
+        }
+    }
+
+    /**
+     * Sets the level of detail: enemies further away from the focus than the given distance are only updated once
+     * per far step time.
+     *
+     * @param lodDistance The distance in pixels within which enemies are updated every step, 0 to update all
+     *                    enemies every step.
+     * @param farStepTime The time in seconds between two updates of a far enemy.
+     */
+    public void setLevelOfDetail(float lodDistance, float farStepTime) {
+        this.lodDistance = lodDistance;
+        this.farStepTime = farStepTime;
+    }
+
+    /**
+     * Sets the center of the area in which enemies are updated every step.
+     *
+     * @param focusX The x-coordinate of the center, usually the center of the player.
+     * @param focusY The y-coordinate of the center.
+     */
+    public void setFocus(float focusX, float focusY) {
+        this.focusX = focusX;
+        this.focusY = focusY;
+    }
+
+    /**
+     * Checks whether an enemy was updated in the last step. Enemies that were not updated did not move.
+     *
+     * @param i The index of the enemy.
+     * @return True if the enemy was updated.
+     */
+    public boolean wasUpdated(int i) {
+        return skipped[i] == 0;
+    }
+
+    /**
+     * Gets the number of enemies updated in the last step, all enemies without a level of detail.
+     *
+     * @return The number of updated enemies.
+     */
+    public int getLastUpdated() {
+        int updated = 0;
+        for (int chunk = 0; chunk < chunkCount(); chunk++) {
+            updated += chunkUpdated[chunk];
+        }
+        return updated;
+    }
+
+    /**
+     * Gets the number of chunks the current enemies are split into.
+     */
+    private int chunkCount() {
+        return (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    }
+
+    /**
+     * Sets the number of enemies from which on the chunks are updated in parallel.
+     *
+     * @param parallelThreshold The number of enemies, Integer.MAX_VALUE to always update serially.
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = parallelThreshold;
+    }
+
+    /**
+     * Copies the state of all enemies into a snapshot, see {@link GameState}. The state of the random number stream
+     * of every chunk is copied without drawing from it, so taking a snapshot does not change how the enemies move,
+     * and an EnemyStore restored from it continues exactly like this one.
+     *
+     * @return The snapshot of the enemies.
+     */
+    public State saveState() {
+        return new State(this);
+    }
+
+    /**
+     * Replaces the state of all enemies with a snapshot taken from an EnemyStore of the same level.
+     *
+     * @param state The snapshot of the enemies.
+     * @throws IllegalArgumentException If the snapshot holds a different number of enemies.
+     */
+    public void restoreState(State state) {
+        if (state.x.length != size) {
+            throw new IllegalArgumentException("The snapshot holds " + state.x.length + " enemies, not " + size);
+        }
+        System.arraycopy(state.x, 0, x, 0, size);
+        System.arraycopy(state.y, 0, y, 0, size);
+        System.arraycopy(state.prevX, 0, prevX, 0, size);
+        System.arraycopy(state.prevY, 0, prevY, 0, size);
+        System.arraycopy(state.lastX, 0, lastX, 0, size);
+        System.arraycopy(state.lastY, 0, lastY, 0, size);
+        System.arraycopy(state.changeDirectionTimer, 0, changeDirectionTimer, 0, size);
+        System.arraycopy(state.overlapTimer, 0, overlapTimer, 0, size);
+        System.arraycopy(state.skipped, 0, skipped, 0, size);
+        System.arraycopy(state.direction, 0, direction, 0, size);
+        for (int chunk = 0; chunk < chunkRandoms.length; chunk++) {
+            chunkRandoms[chunk] = new SplitMixRandom(state.seeds[chunk], state.gammas[chunk]);
+        }
+        updates = state.updates;
+        paused = state.paused;
+    }
+
+    /**
+     * Moves an enemy back to its previous position.
+     *
+     * @param i The index of the enemy.
+     */
+    public void rollBack(int i) {
+        x[i] = prevX[i];
+        y[i] = prevY[i];
+    }
+
+    /**
+     * Checks whether an enemy overlaps a rectangle, with the same rule as {@link Rectangle#overlaps(Rectangle)}.
+     *
+     * @param i      The index of the enemy.
+     * @param bounds The rectangle.
+     * @return True if the enemy overlaps the rectangle.
+     */
+    public boolean overlaps(int i, Rectangle bounds) {
+        return x[i] < bounds.x + bounds.width && x[i] + WIDTH > bounds.x
+                && y[i] < bounds.y + bounds.height && y[i] + HEIGHT > bounds.y;
+    }
+
+    /**
+     * Adds time to the overlap timer of an enemy.
+     *
+     * @param i  The index of the enemy.
+     * @param dt The time to add in seconds.
+     * @return The new value of the overlap timer.
+     */
+    public float addOverlapTime(int i, float dt) {
+        return overlapTimer[i] += dt;
+    }
+
+    /**
+     * Resets the overlap timer of an enemy.
+     *
+     * @param i The index of the enemy.
+     */
+    public void resetOverlapTimer(int i) {
+        overlapTimer[i] = 0;
+    }
+
+    /**
+     * Stops or restarts the movement of all enemies.
+     *
+     * @param paused True to stop all enemies.
+     */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Gets the x-coordinate of an enemy.
+     *
+     * @param i The index of the enemy.
+     * @return The x-coordinate.
+     */
+    public float getX(int i) {
+        return x[i];
+    }
+
+    /**
+     * Gets the y-coordinate of an enemy.
+     *
+     * @param i The index of the enemy.
+     * @return The y-coordinate.
+     */
+    public float getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * Gets the x-coordinate of an enemy between the last two steps.
+     *
+     * @param i     The index of the enemy.
+     * @param alpha How far to go from the position before the last step (0) to the current position (1).
+     * @return The interpolated x-coordinate.
+     */
+    public float getX(int i, float alpha) {
+        return lastX[i] + (x[i] - lastX[i]) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate of an enemy between the last two steps.
+     *
+     * @param i     The index of the enemy.
+     * @param alpha How far to go from the position before the last step (0) to the current position (1).
+     * @return The interpolated y-coordinate.
+     */
+    public float getY(int i, float alpha) {
+        return lastY[i] + (y[i] - lastY[i]) * alpha;
+    }
+
+    /**
+     * Gets the direction of an enemy.
+     *
+     * @param i The index of the enemy.
+     * @return The ordinal of the direction of the enemy, or NONE.
+     */
+    public byte getDirection(int i) {
+        return direction[i];
+    }
+
+    /**
+     * Gets the number of enemies.
+     *
+     * @return The number of enemies.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * An immutable copy of the state of all enemies, taken by {@link #saveState()}.
+     */
+    public static final class State {
+        private final float[] x, y, prevX, prevY, lastX, lastY;
+        private final float[] changeDirectionTimer, overlapTimer, skipped;
+        private final byte[] direction;
+        private final long[] seeds, gammas;
+        private final long updates;
+        private final boolean paused;
+
+        private State(EnemyStore enemies) {
+            int size = enemies.size;
+            x = Arrays.copyOf(enemies.x, size);
+            y = Arrays.copyOf(enemies.y, size);
+            prevX = Arrays.copyOf(enemies.prevX, size);
+            prevY = Arrays.copyOf(enemies.prevY, size);
+            lastX = Arrays.copyOf(enemies.lastX, size);
+            lastY = Arrays.copyOf(enemies.lastY, size);
+            changeDirectionTimer = Arrays.copyOf(enemies.changeDirectionTimer, size);
+            overlapTimer = Arrays.copyOf(enemies.overlapTimer, size);
+            skipped = Arrays.copyOf(enemies.skipped, size);
+            direction = Arrays.copyOf(enemies.direction, size);
+            int chunks = enemies.chunkRandoms.length;
+            seeds = new long[chunks];
+            gammas = new long[chunks];
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                seeds[chunk] = enemies.chunkRandoms[chunk].getSeed();
+                gammas[chunk] = enemies.chunkRandoms[chunk].getGamma();
+            }
+            updates = enemies.updates;
+            paused = enemies.paused;
+        }
+
+        private State(ByteBuffer buffer) {
+            int size = buffer.getInt();
+            x = readFloats(buffer, size);
+            y = readFloats(buffer, size);
+            prevX = readFloats(buffer, size);
+            prevY = readFloats(buffer, size);
+            lastX = readFloats(buffer, size);
+            lastY = readFloats(buffer, size);
+            changeDirectionTimer = readFloats(buffer, size);
+            overlapTimer = readFloats(buffer, size);
+            skipped = readFloats(buffer, size);
+            direction = new byte[size];
+            buffer.get(direction);
+            int chunks = buffer.getInt();
+            if (chunks != (size + CHUNK_SIZE - 1) / CHUNK_SIZE) {
+                throw new IllegalArgumentException("Invalid number of chunks " + chunks + " for " + size + " enemies");
+            }
+            seeds = new long[chunks];
+            gammas = new long[chunks];
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                seeds[chunk] = buffer.getLong();
+                gammas[chunk] = buffer.getLong();
+            }
+            updates = buffer.getLong();
+            paused = buffer.get() != 0;
+        }
+
+        /**
+         * Reads a snapshot written by {@link #write(ByteBuffer)}.
+         *
+         * @param buffer The buffer, positioned at the snapshot.
+         * @return The snapshot.
+         * @throws java.nio.BufferUnderflowException If the buffer ends before the snapshot.
+         */
+        static State read(ByteBuffer buffer) {
+            return new State(buffer);
+        }
+
+        /**
+         * Writes the snapshot in a binary form, see {@link SaveGame}.
+         *
+         * @param buffer The buffer with at least {@link #getSerializedSize()} bytes remaining.
+         */
+        void write(ByteBuffer buffer) {
+            buffer.putInt(x.length);
+            for (float[] values : new float[][]{x, y, prevX, prevY, lastX, lastY, changeDirectionTimer, overlapTimer,
+                    skipped}) {
+                for (float value : values) {
+                    buffer.putFloat(value);
+                }
+            }
+            buffer.put(direction);
+            buffer.putInt(seeds.length);
+            for (int chunk = 0; chunk < seeds.length; chunk++) {
+                buffer.putLong(seeds[chunk]);
+                buffer.putLong(gammas[chunk]);
+            }
+            buffer.putLong(updates);
+            buffer.put((byte) (paused ? 1 : 0));
+        }
+
+        /**
+         * Gets the number of bytes {@link #write(ByteBuffer)} writes: nine floats and a direction per enemy, and
+         * the state of the random number stream per chunk.
+         *
+         * @return The size in bytes.
+         */
+        int getSerializedSize() {
+            return 4 + x.length * (9 * 4 + 1) + 4 + seeds.length * 16 + 8 + 1;
+        }
+
+        /**
+         * Reads an array of floats, checking the size against the remaining bytes first.
+         */
+        private static float[] readFloats(ByteBuffer buffer, int size) {
+            if (size < 0 || size > buffer.remaining() / 4) {
+                throw new BufferUnderflowException();
+            }
+            float[] values = new float[size];
+            buffer.asFloatBuffer().get(values);
+            buffer.position(buffer.position() + size * 4);
+            return values;
+        }
+
+        /**
+         * Gets the number of enemies in the snapshot.
+         *
+         * @return The number of enemies.
+         */
+        public int size() {
+            return x.length;
+        }
+
+        /**
+         * Gets the x-coordinate of an enemy in the snapshot.
+         *
+         * @param i The index of the enemy.
+         * @return The x-coordinate.
+         */
+        public float getX(int i) {
+            return x[i];
+        }
+
+        /**
+         * Gets the y-coordinate of an enemy in the snapshot.
+         *
+         * @param i The index of the enemy.
+         * @return The y-coordinate.
+         */
+        public float getY(int i) {
+            return y[i];
+        }
+    }
+
+    /**
+     * Updates all chunks in parallel. Forks all chunks but the first, updates the first itself and waits for the rest.
+     */
+    private class UpdateTask extends RecursiveAction {
+        @Override
+        protected void compute() {
+            int chunks = chunkCount();
+            for (int chunk = 1; chunk < chunks; chunk++) {
+                chunkTasks[chunk].reinitialize();
+                chunkTasks[chunk].fork();
+            }
+            updateChunk(0, updateDt, updateOccupancy, updateFlowField, updateDecide);
+            for (int chunk = chunks - 1; chunk >= 1; chunk--) {
+                chunkTasks[chunk].join();
+            }
+        }
+    }
+
+    /**
+     * Updates one chunk as part of a parallel update.
+     */
+    private class ChunkTask extends RecursiveAction {
+        private final int chunk;
+
+        ChunkTask(int chunk) {
+            this.chunk = chunk;
+        }
+
+        @Override
+        protected void compute() {
+            updateChunk(chunk, updateDt, updateOccupancy, updateFlowField, updateDecide);
+        }
+    }
+}
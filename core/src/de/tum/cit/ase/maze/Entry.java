@@ -1,14 +1,13 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-
-
 /**
  * Represents the entry point in the maze game.
  * Extends the MazeObject class.
  */
 public class Entry extends MazeObject{
+    //The image of the entry point.
+    public static final String TEXTURE = "entry.png";
+
     /**
      * Constructor for the Entry class.
      *
@@ -16,6 +15,6 @@ public class Entry extends MazeObject{
      * @param y The initial y-coordinate of the entry point.
      */
     public Entry(float x, float y) {
-        super(new Texture(Gdx.files.internal("entry.png")), x, y);
+        super(TEXTURE, x, y);
     }
 }
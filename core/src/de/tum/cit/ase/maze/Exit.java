@@ -1,14 +1,14 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-
 /**
  * Represents the exit point in the maze game.
  * Extends the MazeObject class and provides functionality specific to the exit point.
  */
 
 public class Exit extends MazeObject{
+    //The image of the exit point.
+    public static final String TEXTURE = "exit.png";
+
     private float overlapTimer = 0f;
 
     /**
@@ -18,7 +18,7 @@ public class Exit extends MazeObject{
      * @param y The initial y-coordinate of the exit point.
      */
     public Exit(float x, float y) {
-        super(new Texture(Gdx.files.internal("exit.png")), x, y);
+        super(TEXTURE, x, y);
     }
     /**
      * Gets the overlap timer for the exit point.
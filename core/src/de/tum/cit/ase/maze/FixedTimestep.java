@@ -0,0 +1,97 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The FixedTimestep class turns the varying time between frames into a whole number of simulation steps of a fixed
+ * length. The remaining time is kept in an accumulator for the next frame, so the game logic advances exactly as
+ * fast as real time but always with the same step, no matter the frame rate. After a long frame (a hitch or a
+ * breakpoint), at most a limited number of steps is run and the rest of the time is dropped, so the game slows down
+ * briefly instead of freezing while it tries to catch up.
+ */
+public class FixedTimestep {
+
+    //The number of steps per second used if the "maze.tickRate" system property is not set.
+    public static final int DEFAULT_STEPS_PER_SECOND = 60;
+
+    //The length of one step in seconds.
+    private final float step;
+
+    //The maximum number of steps run for one frame.
+    private final int maxStepsPerFrame;
+
+    //The time in seconds not yet covered by a step.
+    private float accumulator = 0;
+
+    //How many steps were skipped because a frame took too long.
+    private long droppedSteps = 0;
+
+    /**
+     * Constructor for FixedTimestep.
+     *
+     * @param stepsPerSecond   The number of steps per second.
+     * @param maxStepsPerFrame The maximum number of steps run for one frame.
+     */
+    public FixedTimestep(int stepsPerSecond, int maxStepsPerFrame) {
+        if (stepsPerSecond <= 0 || maxStepsPerFrame <= 0) {
+            throw new IllegalArgumentException("Steps per second and per frame have to be positive");
+        }
+        this.step = 1f / stepsPerSecond;
+        this.maxStepsPerFrame = maxStepsPerFrame;
+    }
+
+    /**
+     * Creates a FixedTimestep with the step rate of the "maze.tickRate" system property, or 60 steps per second.
+     *
+     * @param maxStepsPerFrame The maximum number of steps run for one frame.
+     * @return The FixedTimestep.
+     */
+    public static FixedTimestep fromSystemProperty(int maxStepsPerFrame) {
+        return new FixedTimestep(Integer.getInteger("maze.tickRate", DEFAULT_STEPS_PER_SECOND), maxStepsPerFrame);
+    }
+
+    /**
+     * Adds the time of a frame and returns how many steps have to be run for it.
+     *
+     * @param frameDelta The time in seconds since the last frame.
+     * @return The number of steps to run, between 0 and the maximum number of steps per frame.
+     */
+    public int advance(float frameDelta) {
+        accumulator += Math.max(frameDelta, 0);
+        int steps = (int) (accumulator / step);
+        if (steps > maxStepsPerFrame) {
+            droppedSteps += steps - maxStepsPerFrame;
+            steps = maxStepsPerFrame;
+            accumulator = 0;
+        } else {
+            accumulator -= steps * step;
+        }
+        return steps;
+    }
+
+    /**
+     * Gets how far the time of the current frame is between the last step and the next one, used to interpolate
+     * positions for drawing.
+     *
+     * @return A value between 0 (at the last step) and 1 (at the next step).
+     */
+    public float getAlpha() {
+        return Math.min(accumulator / step, 1f);
+    }
+
+    /**
+     * Gets the length of one step.
+     *
+     * @return The step in seconds.
+     */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * Gets how many steps were skipped because frames took too long.
+     *
+     * @return The number of dropped steps.
+     */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+}
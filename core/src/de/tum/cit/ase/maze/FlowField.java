@@ -0,0 +1,180 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+
+import java.util.Arrays;
+
+/**
+ * The FlowField class stores, for every free tile of the maze, the direction of the shortest path to a target tile.
+ * It is computed with one breadth-first search from the target (the tile of the player) and shared by all enemies,
+ * so a chasing enemy only looks up the direction of the tile it stands on instead of searching a path itself.
+ * The field is only searched again when the target moves to another tile. All arrays are allocated once, so
+ * searching again does not allocate.
+ */
+public class FlowField {
+
+    //The tiles enemies cannot walk through.
+    private final OccupancyGrid occupancy;
+
+    //The size of the field in tiles.
+    private final int width, height;
+
+    //The number of steps from every tile to the target, or -1 if the target cannot be reached.
+    private final int[] distance;
+
+    //The ordinal of the Direction to walk in from every tile, or EnemyStore.NONE.
+    private final byte[] direction;
+
+    //The queue of the breadth-first search, every tile is added at most once.
+    private final int[] queue;
+
+    //The tile index of the current target, or -1 before the first search.
+    private int targetTile = -1;
+
+    //The position of the target in pixels, updated every step.
+    private float targetX, targetY;
+
+    //How often the field was searched, for statistics.
+    private int searches = 0;
+
+    /**
+     * Constructor for FlowField.
+     *
+     * @param occupancy The tiles blocked by walls, exits and the entry.
+     */
+    public FlowField(OccupancyGrid occupancy) {
+        this.occupancy = occupancy;
+        this.width = occupancy.getWidth();
+        this.height = occupancy.getHeight();
+        distance = new int[width * height];
+        direction = new byte[width * height];
+        queue = new int[width * height];
+        Arrays.fill(distance, -1);
+        Arrays.fill(direction, EnemyStore.NONE);
+    }
+
+    /**
+     * Points the field to the tile containing the given position. The field is only searched again if that tile
+     * differs from the current target.
+     *
+     * @param targetX The x-coordinate of the target in pixels.
+     * @param targetY The y-coordinate of the target in pixels.
+     * @return True if the field was searched again.
+     */
+    public boolean update(float targetX, float targetY) {
+        this.targetX = targetX;
+        this.targetY = targetY;
+        int tileX = MathUtils.floor(targetX / OccupancyGrid.TILE_SIZE);
+        int tileY = MathUtils.floor(targetY / OccupancyGrid.TILE_SIZE);
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return false;
+        }
+        int tile = tileY * width + tileX;
+        if (tile == targetTile) {
+            return false;
+        }
+        targetTile = tile;
+        search(tileX, tileY);
+        return true;
+    }
+
+    /**
+     * Searches the shortest paths from all free tiles to the target tile. Every tile found from a neighbour points
+     * towards that neighbour, which is one step closer to the target.
+     */
+    private void search(int targetX, int targetY) {
+        Arrays.fill(distance, -1);
+        Arrays.fill(direction, EnemyStore.NONE);
+        searches++;
+
+        int head = 0, tail = 0;
+        int target = targetY * width + targetX;
+        distance[target] = 0;
+        queue[tail++] = target;
+        while (head < tail) {
+            int tile = queue[head++];
+            int tileX = tile % width, tileY = tile / width;
+            int next = distance[tile] + 1;
+            // A tile below the current one walks up to reach it, and so on
+            tail = visit(tileX, tileY - 1, Direction.UP, next, tail);
+            tail = visit(tileX, tileY + 1, Direction.DOWN, next, tail);
+            tail = visit(tileX - 1, tileY, Direction.RIGHT, next, tail);
+            tail = visit(tileX + 1, tileY, Direction.LEFT, next, tail);
+        }
+    }
+
+    /**
+     * Adds a free, unvisited tile to the search.
+     *
+     * @return The new end of the queue.
+     */
+    private int visit(int tileX, int tileY, Direction towardsTarget, int tileDistance, int tail) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height
+                || occupancy.getTile(tileX, tileY) != MazeLayout.EMPTY) {
+            return tail;
+        }
+        int tile = tileY * width + tileX;
+        if (distance[tile] != -1) {
+            return tail;
+        }
+        distance[tile] = tileDistance;
+        direction[tile] = (byte) towardsTarget.ordinal();
+        queue[tail] = tile;
+        return tail + 1;
+    }
+
+    /**
+     * Gets the direction to walk in from a tile to get closer to the target.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The ordinal of the Direction, or EnemyStore.NONE if the tile is the target, blocked or cannot reach it.
+     */
+    public byte getDirection(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return EnemyStore.NONE;
+        }
+        return direction[tileY * width + tileX];
+    }
+
+    /**
+     * Gets the number of steps from a tile to the target.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The number of steps, or -1 if the tile is blocked or cannot reach the target.
+     */
+    public int getDistance(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return -1;
+        }
+        return distance[tileY * width + tileX];
+    }
+
+    /**
+     * Gets the x-coordinate of the target.
+     *
+     * @return The x-coordinate in pixels.
+     */
+    public float getTargetX() {
+        return targetX;
+    }
+
+    /**
+     * Gets the y-coordinate of the target.
+     *
+     * @return The y-coordinate in pixels.
+     */
+    public float getTargetY() {
+        return targetY;
+    }
+
+    /**
+     * Gets how often the field was searched.
+     *
+     * @return The number of searches.
+     */
+    public int getSearches() {
+        return searches;
+    }
+}
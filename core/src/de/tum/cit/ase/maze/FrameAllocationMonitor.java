@@ -0,0 +1,151 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * The FrameAllocationMonitor class checks that a steady-state gameplay frame does not allocate any memory.
+ * It is enabled with the system property {@code -Dmaze.checkAllocations=true} and measures the bytes allocated by the
+ * render thread between {@link #beginFrame()} and {@link #endFrame()}. After a warm-up period, every frame that
+ * allocates is counted as a violation and logged, the first ones one by one and then every hundredth, so the level can
+ * be played to its end. Then {@link #report()} fails if any frame allocated. Frames in which the game state changes on
+ * purpose (a life is lost, the key is collected, the game ends or is paused) are excluded with {@link #ignoreFrame()}.
+ * <p>
+ * The {@link AllocationCheck} runs the same check without a window on the simulation part of the frame.
+ */
+public class FrameAllocationMonitor {
+
+    //Whether the check is enabled for this run of the game.
+    public static final boolean ENABLED = Boolean.getBoolean("maze.checkAllocations");
+
+    //Frames that may allocate while caches, pools and the JIT warm up.
+    private static final int WARM_UP_FRAMES = 300;
+
+    //Violations logged one by one before only every hundredth is logged.
+    private static final int LOGGED_VIOLATIONS = 10;
+
+    //Thread allocation counter of the JVM, or null if the JVM does not support it.
+    private final com.sun.management.ThreadMXBean threadBean;
+
+    private int frames = 0;
+    private long allocatedAtFrameStart;
+    private boolean frameIgnored = false;
+
+    //The frames that allocated after the warm-up, and the most bytes one of them allocated.
+    private int violations = 0;
+    private long maxAllocated = 0;
+
+    //Whether the violations are logged while they happen.
+    private boolean logging = true;
+
+    /**
+     * Constructor for FrameAllocationMonitor. Measures the frames if enabled with -Dmaze.checkAllocations=true.
+     */
+    public FrameAllocationMonitor() {
+        this(ENABLED);
+    }
+
+    /**
+     * Constructor for FrameAllocationMonitor.
+     *
+     * @param enabled True to measure the frames, false to do nothing.
+     */
+    public FrameAllocationMonitor(boolean enabled) {
+        com.sun.management.ThreadMXBean bean = null;
+        if (enabled && ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean candidate
+                && candidate.isThreadAllocatedMemorySupported()) {
+            candidate.setThreadAllocatedMemoryEnabled(true);
+            bean = candidate;
+        }
+        threadBean = bean;
+    }
+
+    /**
+     * Starts measuring a frame. Called at the very beginning of the render method.
+     */
+    public void beginFrame() {
+        if (threadBean != null) {
+            frameIgnored = false;
+            allocatedAtFrameStart = threadBean.getCurrentThreadAllocatedBytes();
+        }
+    }
+
+    /**
+     * Excludes the current frame from the check, because the game state changed on purpose.
+     */
+    public void ignoreFrame() {
+        frameIgnored = true;
+    }
+
+    /**
+     * Finishes measuring a frame. Called at the very end of the render method, so logging a violation is not
+     * measured as part of the next frame.
+     */
+    public void endFrame() {
+        if (threadBean == null) {
+            return;
+        }
+        long allocated = threadBean.getCurrentThreadAllocatedBytes() - allocatedAtFrameStart;
+        frames++;
+        if (frames > WARM_UP_FRAMES && !frameIgnored && allocated > 0) {
+            violations++;
+            maxAllocated = Math.max(maxAllocated, allocated);
+            if (logging && (violations <= LOGGED_VIOLATIONS || violations % 100 == 0)) {
+                log(true, "Gameplay frame " + frames + " allocated " + allocated + " bytes (violation " + violations
+                        + ")");
+            }
+        }
+    }
+
+    /**
+     * Reports how many of the measured frames allocated memory, called when the level ends. Does nothing if the
+     * check is not enabled.
+     *
+     * @throws IllegalStateException If a frame after the warm-up allocated memory.
+     */
+    public void report() {
+        if (threadBean == null) {
+            return;
+        }
+        int measured = Math.max(0, frames - WARM_UP_FRAMES);
+        if (violations > 0) {
+            String message = violations + " of " + measured + " gameplay frames allocated, at most " + maxAllocated
+                    + " bytes";
+            log(true, message);
+            throw new IllegalStateException(message);
+        }
+        log(false, "No allocations in " + measured + " gameplay frames");
+    }
+
+    /**
+     * Logs a message through the application log, or on the output or error stream if no application is running.
+     */
+    private static void log(boolean error, String message) {
+        if (Gdx.app == null) {
+            (error ? System.err : System.out).println("FrameAllocationMonitor: " + message);
+        } else if (error) {
+            Gdx.app.error("FrameAllocationMonitor", message);
+        } else {
+            Gdx.app.log("FrameAllocationMonitor", message);
+        }
+    }
+
+    /**
+     * Sets whether the violations are logged while they happen, used for runs that only warm up the JIT compiler.
+     *
+     * @param logging False to only count the violations.
+     */
+    public void setLogging(boolean logging) {
+        this.logging = logging;
+    }
+
+    /**
+     * Gets the number of frames that allocated memory after the warm-up.
+     *
+     * @return The number of violations.
+     */
+    public int getViolations() {
+        return violations;
+    }
+}
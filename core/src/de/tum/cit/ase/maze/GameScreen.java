@@ -4,86 +4,125 @@
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
 import com.badlogic.gdx.utils.ScreenUtils;
 import com.badlogic.gdx.utils.TimeUtils;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Random;
 
 /**
  * The GameScreen class is responsible for rendering the gameplay screen.
- * It handles the game logic and rendering of the game elements.
+ * The game logic itself runs in a {@link World}: every frame the screen passes the keyboard input to the World,
+ * advances it by the frame time, plays the sounds for the reported events and draws the game elements.
  */
 public class GameScreen implements Screen {
+    //Images of the player character, indexed by the ordinal of the Direction (DOWN, UP, LEFT, RIGHT and BACK).
+    static final String[] PLAYER_TEXTURES = {"characterF.png", "characterU.png", "characterL.png", "characterR.png", "characterB.png"};
+
+    //Whether the enemies chase the player instead of walking randomly, enabled with -Dmaze.chase=true.
+    private static final boolean CHASE_MODE = Boolean.getBoolean("maze.chase");
+
+    //The time budget of the enemy decisions per frame in microseconds, set with -Dmaze.aiBudget, 0 for no budget.
+    private static final long AI_BUDGET_MICROS = Long.getLong("maze.aiBudget", 0);
+
+    //The order in which the enemies decide within the budget, set with -Dmaze.aiOrder=ROUND_ROBIN or NEAREST_FIRST.
+    private static final AiScheduler.Order AI_ORDER = readAiOrder();
+
+    //Whether enemies outside the visible area are updated less often, disabled with -Dmaze.simulationLod=false.
+    private static final boolean SIMULATION_LOD = !"false".equals(System.getProperty("maze.simulationLod"));
+
+    //The margin in pixels around the visible area within which enemies are still updated every step.
+    private static final float LOD_MARGIN = 2 * OccupancyGrid.TILE_SIZE;
+
+    //The time in seconds between two updates of an enemy outside the visible area, a fifth of a tile of movement.
+    private static final float FAR_STEP_TIME = 0.1f;
+
+    //The margin in pixels around the visible area within which objects are still drawn.
+    private static final float CULL_MARGIN = 16;
+
+    //Whether every step of the game is recorded for the ReplayRunner, enabled with -Dmaze.record=true.
+    private static final boolean RECORD_INPUT = Boolean.getBoolean("maze.record");
+
+    //The maximum number of World steps run in one frame to catch up after a slow frame.
+    private static final int MAX_STEPS_PER_FRAME = 5;
+
     String filePath;
     private final MazeRunnerGame game;
     private final OrthographicCamera camera;
     private final BitmapFont font;
     private HUD hud;
-    private boolean isGameOver = false;
-    private boolean isGameWon = false;
     private int level;
-    /**
-     * Variables for earning points according to the time
-     */
-    int completedIn = 0;
-    private double gameStartTime;
-    boolean timePrinted = false;
-    int maxPoint = 1000;
-    int minPoint = 100;
-    int earnedPoints;
 
+    //Loads the map, textures and sounds of the level before the screen is shown.
+    private final LevelLoader levelLoader;
+    private boolean disposed = false;
     /**
-     * Variables for enemy movement
+     * Texts of the victory message, built once when the game is won
      */
-    double directionTimer = 0;
-    Random random = new Random();
+    private String finishedText, earnedPointsText;
 
     /**
      * Variables for sound effects
      */
     private Sound lifeLostSound, keyCollectedSound, victorySound, gameOverSound;
-    private boolean soundPlayed = false;
 
     /**
-     * Maze Objects
+     * Maze Objects and the World simulating them
      */
     private ArrayList<MazeObject> mazeLayout;
-    private Array<Enemy> enemyArray;
-    private Array<Trap> trapArray;
-    private Array<Wall> wallArray;
-    private Array<Exit> exitArray;
-    private Entry entry;
-    private Key key;
+    private World world;
+
+    //The traps, walls, exits and the entry, cached on the graphics card when the level is shown.
+    private StaticGeometry staticGeometry;
+
+    //The area visible through the camera with a small margin, only objects overlapping it are drawn.
+    private final Rectangle view = new Rectangle();
+
+    //The indices of the enemies in the visible area, found in the spatial grid of the World.
+    private final IntArray visibleEnemies = new IntArray();
+
+    //The draw calls and vertices of the current frame, logged once per second with -Dmaze.renderStats=true.
+    private final RenderStats renderStats = new RenderStats();
+    private int statsFrames = 0;
+
+    //The keyboard input of the current frame, passed to the World.
+    private final InputState inputState = new InputState();
+
+    //Splits the frame time into fixed steps of the World, set with -Dmaze.tickRate (steps per second).
+    private final FixedTimestep timestep = FixedTimestep.fromSystemProperty(MAX_STEPS_PER_FRAME);
+
+    //The level of detail distance of the enemies in the current frame, recorded with the input.
+    private float lodDistance = 0;
+
+    //Records the input of every step if enabled with -Dmaze.record=true, null otherwise.
+    private InputRecording recording;
+
+    //Checks that gameplay frames do not allocate, if enabled with -Dmaze.checkAllocations=true
+    private final FrameAllocationMonitor allocationMonitor = new FrameAllocationMonitor();
+
+    //When resuming from the PauseScreen was requested, 0 if the screen is not resuming, and the number of resumes.
+    private long resumeRequested = 0;
+    private int resumes = 0;
 
 
     /**
      * Variables for character
      */
-    float Speed = 200.0f;
-    float playerX;
-    float playerY;
-    int playerWidth = 30;
-    int playerHeight = 44;
-    float prevX;
-    float prevY;
-    Texture player,playerU, playerL, playerR, playerB;
-    Rectangle rectanglePlayer;
+    private TextureRegion[] playerRegions;
+
+    //The region shared by all enemies, which are drawn from the EnemyStore of the World.
+    private TextureRegion enemyRegion;
     private final Character character;
 
     float cameraZoom = 0.75f;
 
-    /**
-     * Attributes for resuming game
-     */
-    private final HashMap<String, Object> statusGame = new HashMap<>();
-    private HashMap<String, Object> returnGameStatus = new HashMap<>();
-
 
     /**
      * Constructor for GameScreen. Initializes the game elements and sets up the camera and font.
@@ -112,9 +151,9 @@ public GameScreen(MazeRunnerGame game, int selectedLevel) {
         if (selectedLevel == 6) {
             this.level = 6;
             if (game.isResumeGame()) {
-                returnGameStatus = game.getReturnGameStatus();
-                if (returnGameStatus != null && returnGameStatus.containsKey("filePath")) {
-                    setFilePath((String) returnGameStatus.get("filePath"));
+                GameState resumeState = game.getResumeState();
+                if (resumeState != null && resumeState.getFilePath() != null) {
+                    setFilePath(resumeState.getFilePath());
                 } else {
                     setFilePath("maps/level-1.properties");
                 }
@@ -135,258 +174,73 @@ public GameScreen(MazeRunnerGame game, int selectedLevel) {
         character = new Character();
 
         //The Heads-Up Display (HUD) displaying essential information during gameplay.
-        hud = new HUD(game.getSpriteBatch(), character);
+        hud = new HUD(game.getSpriteBatch(), character, font);
 
-        // Call the create method to initialize additional game elements
-        create();
+        // The level is loaded in the background, the LoadingScreen calls create() once everything is resident
+        levelLoader = new LevelLoader(level, getFilePath());
+        levelLoader.start();
     }
 
     /**
-     * Initializes various game elements during the setup phase, including parsing maze layout,
-     * loading sounds, and setting up necessary resources.
+     * Reads the order of the enemy decisions from -Dmaze.aiOrder. An unknown order is logged and replaced by
+     * round-robin, so a typo does not stop the game.
+     *
+     * @return The order set, NEAREST_FIRST if none is set.
      */
-    public void create(){
-        // Initialize a ReadPropertiesFile instance to read maze configuration from properties file.
-        ReadPropertiesFile readPropertiesFile = new ReadPropertiesFile();
-
-        // Parse maze layout based on the selected level.
-        mazeLayout = readPropertiesFile.parseMaze(level, getFilePath());
+    private static AiScheduler.Order readAiOrder() {
+        String name = System.getProperty("maze.aiOrder", AiScheduler.Order.NEAREST_FIRST.name());
+        try {
+            return AiScheduler.Order.valueOf(name.trim());
+        } catch (IllegalArgumentException e) {
+            String message = "Unknown -Dmaze.aiOrder=" + name + ", using ROUND_ROBIN";
+            if (Gdx.app != null) {
+                Gdx.app.error("GameScreen", message);
+            } else {
+                System.err.println("GameScreen: " + message);
+            }
+            return AiScheduler.Order.ROUND_ROBIN;
+        }
+    }
 
-        // Initialize sound effects for different game events.
-        lifeLostSound = Gdx.audio.newSound(Gdx.files.internal("lifeLost.wav"));
-        keyCollectedSound = Gdx.audio.newSound(Gdx.files.internal("keyCollect.mp3"));
-        victorySound = Gdx.audio.newSound(Gdx.files.internal("victory.mp3"));
-        gameOverSound = Gdx.audio.newSound(Gdx.files.internal("GameOver.wav"));
+    /**
+     * Initializes various game elements once the level is loaded, taking over the maze layout
+     * and the sounds from the LevelLoader.
+     */
+    public void create(){
+        // Take over the maze layout parsed from the properties file.
+        mazeLayout = levelLoader.getMazeObjects();
+
+        // Take over the sound effects for different game events.
+        lifeLostSound = levelLoader.getSound(LevelLoader.LIFE_LOST_SOUND);
+        keyCollectedSound = levelLoader.getSound(LevelLoader.KEY_COLLECTED_SOUND);
+        victorySound = levelLoader.getSound(LevelLoader.VICTORY_SOUND);
+        gameOverSound = levelLoader.getSound(LevelLoader.GAME_OVER_SOUND);
     }
 
 
     /**
-     * Renders the gameplay screen, updating and drawing game elements.
+     * Renders the gameplay screen. Advances the World in fixed steps covering the frame time with the current
+     * keyboard input, plays the sounds of the events it reports and draws the game elements, interpolated between
+     * the last two steps.
      *
      * @param delta The time in seconds since the last render.
      */
     @Override
     public void render(float delta) {
-
-        // Clear the screen
-        ScreenUtils.clear(0, 0, 0, 1);
-
-        // Update the camera
-        camera.update();
-
-        // Begin drawing with the sprite batch
-        game.getSpriteBatch().begin();
-
-        // Set up and begin drawing with the sprite batch
-        game.getSpriteBatch().setProjectionMatrix(camera.combined);
+        allocationMonitor.beginFrame();
 
         // Check for escape key press to go back to the menu
         if(!game.isEscape()){
-            if ((isGameWon || isGameOver) && Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+            if ((world.isGameWon() || world.isGameOver()) && Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)) {
+                allocationMonitor.ignoreFrame();
                 game.goToMenu();
+                return;
             }
-            if ((!isGameWon && !isGameOver) && Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)){
-                game.goToPauseScreen(updateStatusGame());
-            }
-        }
-
-        //DRAW TRAPS
-        if (trapArray != null){
-            for (Trap trap : trapArray){
-                game.getSpriteBatch().draw(trap.getTexture(), trap.getX(), trap.getY(), trap.getWidth(), trap.getHeight());
-            }
-        }
-
-        //DRAW ENEMIES
-        if (enemyArray != null){
-            for (Enemy enemy : enemyArray){
-                game.getSpriteBatch().draw(enemy.getTexture(), enemy.getX(), enemy.getY(), enemy.getWidth(), enemy.getHeight());
-                //System.out.println("DRAWING ENEMY " + enemy.getX() + " " + enemy.getY());
-            }
-        }
-
-        //DRAW WALLS
-        if (wallArray != null){
-            for (Wall wall : wallArray){
-                game.getSpriteBatch().draw(wall.getTexture(), wall.getX(), wall.getY(), wall.getWidth(), wall.getHeight());
-            }
-        }
-
-        //DRAW EXIT
-        if (exitArray != null){
-            for (Exit exit : exitArray){
-                game.getSpriteBatch().draw(exit.getTexture(), exit.getX(), exit.getY(), exit.getWidth(), exit.getHeight());
-            }
-        }
-
-        //DRAW ENTRY
-        game.getSpriteBatch().draw(entry.getTexture(), entry.getX(), entry.getY(), entry.getWidth(), entry.getHeight());
-
-
-        //DRAW KEY if it is not collected
-        if (!character.isKeyCollected()){
-            game.getSpriteBatch().draw(key.getTexture(), key.getX(), key.getY(), key.getWidth(), key.getHeight());
-        }
-
-        //DRAW CHARACTER based on its direction
-        if (character.getDirection().equals("DOWN")){
-            game.getSpriteBatch().draw(player, playerX, playerY, playerWidth, playerHeight);
-        }
-        if (character.getDirection().equals("UP")){
-            game.getSpriteBatch().draw(playerU, playerX, playerY, playerWidth, playerHeight);
-        }
-        if (character.getDirection().equals("RIGHT")){
-            game.getSpriteBatch().draw(playerR, playerX, playerY, playerWidth, playerHeight);
-        }
-        if (character.getDirection().equals("LEFT")){
-            game.getSpriteBatch().draw(playerL, playerX, playerY, playerWidth, playerHeight);
-        }
-        if (character.getDirection().equals("BACK")){
-            game.getSpriteBatch().draw(playerB, playerX, playerY, playerWidth, playerHeight);
-        }
-
-        //COLLISION DETECTION BETWEEN ENEMY AND CHARACTER
-        if (enemyArray != null){
-            for (Enemy enemy : enemyArray){
-                if (enemy.getBounds().overlaps(rectanglePlayer)) {
-                    // Increment the timer if overlapping
-                    enemy.setOverlapTimer(enemy.getOverlapTimer() + delta);
-                    playerY = prevY;
-                    playerX = prevX;
-                    enemy.setY(enemy.getPrevY());
-                    enemy.setX(enemy.getPrevX());
-
-                    // Check if the timer has reached the delay duration
-                    if (enemy.getOverlapTimer() >= 0.2 && character.getNumOfLives() > 0) {
-                        character.loseLife();
-                        lifeLostSound.play();
-
-                        // Reset the timer
-                        enemy.setOverlapTimer(0);
-                    }
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN TRAP AND CHARACTER
-        if (trapArray != null){
-            for (Trap trap : trapArray){
-                if (trap.getBounds().overlaps(rectanglePlayer)) {
-                    // Increment the timer if overlapping
-                    trap.setOverlapTimer(trap.getOverlapTimer() + delta);
-                    playerY = prevY;
-                    playerX = prevX;
-
-                    // Check if the timer has reached the delay duration
-                    if (trap.getOverlapTimer() >= 0.2 && character.getNumOfLives() > 0) {
-                        character.loseLife();
-                        lifeLostSound.play();
-
-                        // Reset the timer
-                        trap.setOverlapTimer(0);
-                    }
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN WALL AND CHARACTER
-        if (wallArray != null) {
-            for (Wall wall : wallArray) {
-                if (wall.getBounds().overlaps(rectanglePlayer)) {
-                    playerY = prevY;
-                    playerX = prevX;
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN WALL AND ENEMY
-        if (wallArray != null && enemyArray != null) {
-            for (Wall wall : wallArray) {
-                for (Enemy enemy : enemyArray) {
-                    if (wall.getBounds().overlaps(enemy.getBounds())) {
-                        enemy.setY(enemy.getPrevY());
-                        enemy.setX(enemy.getPrevX());
-                    }
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN ENTRY AND ENEMY
-        if (enemyArray != null){
-            for (Enemy enemy : enemyArray){
-                if (enemy.getBounds().overlaps(entry.getBounds())){
-                    enemy.setY(enemy.getPrevY());
-                    enemy.setX(enemy.getPrevX());
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN EXIT AND ENEMY
-        if (exitArray != null && enemyArray != null) {
-            for (Exit exit : exitArray) {
-                for (Enemy enemy : enemyArray) {
-                    if (exit.getBounds().overlaps(enemy.getBounds())) {
-                        enemy.setY(enemy.getPrevY());
-                        enemy.setX(enemy.getPrevX());
-                    }
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN EXIT AND CHARACTER IF KEY IS COLLECTED
-        if (exitArray != null) {
-            for (Exit exit : exitArray) {
-                if (exit.getBounds().overlaps(rectanglePlayer) && character.isKeyCollected()){
-                    character.setDirection("BACK");
-                    exit.setOverlapTimer(exit.getOverlapTimer() + delta);
-                    if (exit.getOverlapTimer() > 0.1){
-                        playerX = exit.getX() + 15;  // Adjust this based on your needs
-                        playerY = exit.getY() + 5;
-                        if (!timePrinted){
-                            completedIn= (int) Math.round( (TimeUtils.nanoTime() - gameStartTime) / 1000000000);
-                            timePrinted = true;
-                        }
-                        isGameWon = true;
-                        exit.setOverlapTimer(0);
-                    }
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN EXIT AND CHARACTER IF KEY IS NOT COLLECTED
-        if (exitArray !=null){
-            for (Exit exit : exitArray){
-                if (exit.getBounds().overlaps(rectanglePlayer) && !character.isKeyCollected()){
-                    playerY = prevY;
-                    playerX = prevX;
-                }
-            }
-        }
-
-        //COLLISION DETECTION BETWEEN KEY AND CHARACTER
-        if (key.getBounds().overlaps(rectanglePlayer)){
-            if (!character.isKeyCollected()){
-                keyCollectedSound.play();
-            }
-            character.setKeyCollected(true);
-        }
-
-        //COLLISION DETECTION BETWEEN ENTRY AND CHARACTER
-        if (rectanglePlayer.getX() < entry.getBounds().x){
-            playerY = prevY;
-            playerX = prevX;
-        }
-
-        //ENEMY MOVEMENTS
-        if (enemyArray != null){
-            for (Enemy enemy : enemyArray){
-                enemy.setChangeDirectionTimer(enemy.getChangeDirectionTimer() + delta);
-                if (enemy.getChangeDirectionTimer() >= directionTimer){
-                    enemy.setChosenDirection(enemy.getPossibleDirections()[random.nextInt(enemy.getPossibleDirections().length)]);
-                    enemy.setChangeDirectionTimer(0);
-                }
-                enemy.updatePosition(enemy.getChosenDirection());
-                directionTimer = random.nextDouble(1,5);
+            if ((!world.isGameWon() && !world.isGameOver()) && Gdx.input.isKeyJustPressed(Input.Keys.ESCAPE)){
+                allocationMonitor.ignoreFrame();
+                // The screen is suspended, the World does not advance until it is shown again
+                game.goToPauseScreen(saveState());
+                return;
             }
         }
 
@@ -400,23 +254,36 @@ public void render(float delta) {
             camera.zoom = cameraZoom;
         }
 
-        if (!character.isPaused()){
-            handleArrowKeyInput();
+        // Advance the game logic in fixed steps and play the sounds of what happened
+        readInput();
+        // Enemies outside the visible area are updated less often, the visible area changes with the zoom
+        if (SIMULATION_LOD) {
+            float halfWidth = camera.viewportWidth * camera.zoom / 2;
+            float halfHeight = camera.viewportHeight * camera.zoom / 2;
+            float visible = (float) Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight);
+            lodDistance = visible + LOD_MARGIN;
+            world.getEnemies().setLevelOfDetail(lodDistance, FAR_STEP_TIME);
+        }
+
+        int events = 0;
+        int steps = timestep.advance(delta);
+        // The steps catching up after a slow frame share the time budget of the enemy decisions
+        world.getAiScheduler().beginFrame();
+        for (int i = 0; i < steps; i++) {
+            events |= world.step(timestep.getStep(), inputState);
+            if (recording != null) {
+                recording.record(inputState, lodDistance, world.getStateHash());
+            }
         }
-
-        if (character.getNumOfLives() <= 0) {
-            isGameOver = true;
+        if (events != 0) {
+            allocationMonitor.ignoreFrame();
+            playSounds(events);
         }
 
-        //UPDATE RECTANGLES
-        rectanglePlayer = new Rectangle(playerX, playerY, playerWidth, playerHeight);
-
-        if (enemyArray != null){
-            for (Enemy enemy : enemyArray){
-                enemy.setBounds(new Rectangle(enemy.getX(), enemy.getY(), enemy.getWidth(), enemy.getHeight()));
-            }
-        }
-        key.setBounds(new Rectangle(key.getX(), key.getY(), key.getWidth(), key.getHeight()));
+        // Draw the moving characters between the last two steps, so the movement is smooth at any frame rate
+        float alpha = timestep.getAlpha();
+        float playerX = world.getPlayerX(alpha);
+        float playerY = world.getPlayerY(alpha);
 
         //Set camera position
         camera.position.set(playerX, playerY, 0);
@@ -435,76 +302,173 @@ public void render(float delta) {
             camera.translate(0, -1,0);
         }
 
+        // Clear the screen
+        ScreenUtils.clear(0, 0, 0, 1);
 
-        // End the drawing with the sprite batch
-        game.getSpriteBatch().end();
+        // Update the camera
+        camera.update();
+        updateView();
 
+        renderStats.beginFrame();
+        staticGeometry.beginFrame();
 
-        // Handle game over and victory conditions
-        if (isGameOver){
-            if (!soundPlayed){
-                gameOverSound.play();
-                soundPlayed= true;
-            }
-            displayGameOverMessage();
-            stopGamePlay();
+        //DRAW TRAPS from the cache
+        staticGeometry.draw(StaticGeometry.FLOOR, camera, view);
+
+        // Set up and begin drawing with the sprite batch
+        SpriteBatch batch = game.getSpriteBatch();
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+
+        //DRAW ENEMIES in the visible area
+        EnemyStore enemies = world.getEnemies();
+        world.findEnemies(view, visibleEnemies);
+        for (int k = 0; k < visibleEnemies.size; k++){
+            int i = visibleEnemies.get(k);
+            batch.draw(enemyRegion, enemies.getX(i, alpha), enemies.getY(i, alpha), EnemyStore.WIDTH, EnemyStore.HEIGHT);
         }
+        batch.end();
+        renderStats.addBatch(batch.renderCalls, visibleEnemies.size);
 
-        if (isGameWon){
-            if (!soundPlayed){
-                victorySound.play();
-                soundPlayed= true;
-            }
+        //DRAW WALLS, EXITS and ENTRY from the cache, above the enemies
+        staticGeometry.draw(StaticGeometry.STRUCTURE, camera, view);
+        renderStats.addCache(staticGeometry.getDrawCalls(), staticGeometry.getDrawnSprites());
+
+        batch.begin();
+        int sprites = 1;
+
+        //DRAW KEY if it is not collected and visible
+        Key key = world.getKey();
+        if (!character.isKeyCollected() && key.getBounds().overlaps(view)){
+            draw(key);
+            sprites++;
+        }
+
+        //DRAW CHARACTER based on its direction
+        batch.draw(playerRegions[character.getDirection().ordinal()], playerX, playerY, world.getPlayerWidth(), world.getPlayerHeight());
+
+        // End the drawing with the sprite batch
+        batch.end();
+        renderStats.addBatch(batch.renderCalls, sprites);
+        renderStats.addTotal(staticGeometry.getSpriteCount() + enemies.size() + (character.isKeyCollected() ? 1 : 2));
+        logRenderStats();
+
+
+        // Display game over and victory messages
+        if (world.isGameOver()){
+            displayGameOverMessage();
+        } else if (world.isGameWon()){
             displayWinMessage();
-            stopGamePlay();
         }
 
-        //DRAW HUD
-        hud = new HUD(game.getSpriteBatch(), character);
+        //DRAW HUD, its labels are only laid out again if the lives or the key changed
+        if (hud.update()) {
+            allocationMonitor.ignoreFrame();
+        }
         hud.stage.draw();
+
+        if (resumeRequested != 0) {
+            allocationMonitor.ignoreFrame();
+            logResume();
+        }
+        allocationMonitor.endFrame();
     }
 
+    /**
+     * Logs the time from the request to resume the paused game to the end of the first frame drawn afterwards.
+     */
+    private void logResume(){
+        resumes++;
+        double millis = (TimeUtils.nanoTime() - resumeRequested) / 1e6;
+        Gdx.app.log("GameScreen", String.format("Resumed in %.2f ms to the first frame (resume %d), textures: %s",
+                millis, resumes, TextureRegistry.getStatistics()));
+        resumeRequested = 0;
+    }
 
     /**
-     * Handles arrow key input to move the player character and updates its direction.
-     * The method checks for pressed arrow keys (UP, DOWN, LEFT, RIGHT) and updates
-     * the player's position and direction accordingly.
+     * Marks that the paused game is about to be shown again, so the resume latency is logged after the next frame.
+     * The World, the sounds and the caches of the suspended screen are kept, so nothing has to be loaded.
+     *
+     * @param requestedNanos The time of the request to resume, from {@link TimeUtils#nanoTime()}.
      */
-    private void handleArrowKeyInput(){
+    public void prepareResume(long requestedNanos){
+        resumeRequested = requestedNanos;
+    }
 
-        // Handle UP arrow key
-        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) {
-            prevY = playerY; // Store the previous Y position
-            playerY += Gdx.graphics.getDeltaTime() * Speed; // Move the player up
-            character.setDirection("UP"); // Set the character's direction
-        }
+    /**
+     * Checks whether the World of the level was created, which happens the first time the screen is shown.
+     *
+     * @return True if the screen can be shown again without loading anything.
+     */
+    public boolean isStarted(){
+        return world != null && !disposed;
+    }
 
-        // Handle DOWN arrow key
-        else if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) {
-            prevY = playerY; // Store the previous Y position
-            playerY -= Gdx.graphics.getDeltaTime() * Speed; // Move the player down
-            character.setDirection("DOWN"); // Set the character's direction
-        }
+    /**
+     * Sets the visible area from the position, the viewport and the zoom of the camera, which is the frustum of the
+     * orthographic camera seen from above. The margin covers enemies moving between the last two steps.
+     */
+    private void updateView(){
+        float width = camera.viewportWidth * camera.zoom;
+        float height = camera.viewportHeight * camera.zoom;
+        view.set(camera.position.x - width / 2 - CULL_MARGIN, camera.position.y - height / 2 - CULL_MARGIN,
+                width + 2 * CULL_MARGIN, height + 2 * CULL_MARGIN);
+    }
 
-        // Handle LEFT arrow key
-        else if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) {
-            prevX = playerX; // Store the previous X position
-            playerX -= Gdx.graphics.getDeltaTime() * Speed; // Move the player left
-            character.setDirection("LEFT"); // Set the character's direction
+    /**
+     * Logs the draw calls and vertices of the current frame once per second, if enabled with -Dmaze.renderStats=true.
+     */
+    private void logRenderStats(){
+        if (RenderStats.ENABLED && ++statsFrames >= 60) {
+            statsFrames = 0;
+            allocationMonitor.ignoreFrame();
+            Gdx.app.log("RenderStats", renderStats.toString());
         }
+    }
+
+    /**
+     * Reads the arrow keys (and WASD) into the input state passed to the World.
+     */
+    private void readInput(){
+        inputState.set(Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W),
+                Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S),
+                Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A),
+                Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D));
+    }
 
-        // Handle RIGHT arrow key
-        else if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) {
-            prevX = playerX; // Store the previous X position
-            playerX += Gdx.graphics.getDeltaTime() * Speed; // Move the player right
-            character.setDirection("RIGHT"); // Set the character's direction
+    /**
+     * Plays the sound effects for the events reported by the World.
+     *
+     * @param events The events of the last step, a combination of the World event flags.
+     */
+    private void playSounds(int events){
+        if ((events & World.LIFE_LOST) != 0){
+            lifeLostSound.play();
+        }
+        if ((events & World.KEY_COLLECTED) != 0){
+            keyCollectedSound.play();
+        }
+        if ((events & World.GAME_OVER) != 0){
+            gameOverSound.play();
         }
+        if ((events & World.GAME_WON) != 0){
+            victorySound.play();
+        }
+    }
+
+    /**
+     * Draws a maze object with its region of the sprite atlas at its position.
+     *
+     * @param mazeObject The maze object to draw.
+     */
+    private void draw(MazeObject mazeObject){
+        game.getSpriteBatch().draw(mazeObject.getRegion(), mazeObject.getX(), mazeObject.getY(), mazeObject.getWidth(), mazeObject.getHeight());
     }
 
 
     /**
      * Displays the victory message on the screen with relevant information.
-     * The method calculates earned points based on completion time and displays
+     * The method displays
      * the victory message along with the completed time, earned points, and an
      * instruction to go back to the menu.
      */
@@ -513,21 +477,18 @@ private void displayWinMessage(){
         game.getSpriteBatch().setProjectionMatrix(camera.combined);
         game.getSpriteBatch().begin();
 
-        // Calculate earned points based on completion time
-        if (completedIn <= 30){
-            earnedPoints = maxPoint;
-        } else if (completedIn >= 120) {
-            earnedPoints = minPoint;
-        } else {
-            earnedPoints = maxPoint - (completedIn - 30)*10;
+        // Build the texts with the completion time and the earned points once
+        if (finishedText == null) {
+            finishedText = "Finished in " + world.getCompletedIn() + " seconds!";
+            earnedPointsText = "Earned Points: " + world.getEarnedPoints();
         }
 
         // Draw the "VICTORY" message
         font.draw(game.getSpriteBatch(), "VICTORY", camera.position.x - 200, camera.position.y);
         // Draw the completed time
-        font.draw(game.getSpriteBatch(), "Finished in " + completedIn + " seconds!", camera.position.x - 200, camera.position.y - 30);
+        font.draw(game.getSpriteBatch(), finishedText, camera.position.x - 200, camera.position.y - 30);
         // Draw the earned points
-        font.draw(game.getSpriteBatch(), "Earned Points: " + earnedPoints, camera.position.x - 200, camera.position.y - 60);
+        font.draw(game.getSpriteBatch(), earnedPointsText, camera.position.x - 200, camera.position.y - 60);
         // Draw instruction to go back to the menu
         font.draw(game.getSpriteBatch(), "Press ESC to go to menu", camera.position.x - 200, camera.position.y - 90);
 
@@ -548,7 +509,7 @@ private void displayGameOverMessage(){
         // Draw the "GAME OVER" message
         font.draw(game.getSpriteBatch(), "GAME OVER", camera.position.x - 200, camera.position.y);
         // Draw earned points (always 0 in case of game over)
-        font.draw(game.getSpriteBatch(), "Earned Points: " + 0, camera.position.x - 200, camera.position.y - 60);
+        font.draw(game.getSpriteBatch(), "Earned Points: 0", camera.position.x - 200, camera.position.y - 60);
         // Draw instruction to go back to the menu
         font.draw(game.getSpriteBatch(), "Press ESC to go to menu", camera.position.x - 200, camera.position.y - 30);
 
@@ -557,37 +518,11 @@ private void displayGameOverMessage(){
 
 
     /**
-     * Pauses the gameplay by setting the character and all enemies to a paused state.
-     * This method is called when the game is either won or lost to freeze the gameplay.
-     * The character and enemy movement is halted, and the game enters a paused state.
+     * Takes a snapshot of the whole game when the player enters the PauseScreen, including the enemies and timers.
+     * @return the GameState passed into the goToPauseScreen() method from MazeRunnerGame
      */
-    private void stopGamePlay(){
-        // Pause the main character
-        character.setPaused(true);
-
-        // Pause all enemies (if any)
-        if (enemyArray != null){
-            for (Enemy enemy : enemyArray){
-                enemy.setPaused(true);
-            }
-        }
-    }
-
-    /**
-     * Stores the map level, last x and y coordinates, number of lives and if key is collected in a HashMap when player enters PauseScreen
-     * @return the HashMap statusGame passed into the goToPauseScreen() method from MazeRunnerGame
-     */
-    public HashMap<String, Object> updateStatusGame(){
-
-        statusGame.put("level", level);
-        statusGame.put("playerX", playerX);
-        statusGame.put("playerY", playerY);
-        statusGame.put("isKeyCollected", character.isKeyCollected());
-        statusGame.put("livesLeft", character.getNumOfLives());
-        if (level == 6){
-            statusGame.put("filePath", filePath);
-        }
-        return statusGame;
+    public GameState saveState(){
+        return world.saveState(level, level == 6 ? filePath : null);
     }
 
     /**
@@ -619,96 +554,159 @@ public void resume() {
 
 
     /**
-     * Called when the screen becomes the current screen of the game. Initializes game elements, such as enemies,
-     * traps, walls, exits, and the player character. Also, sets up textures and rectangles for rendering.
+     * Called when the screen becomes the current screen of the game. The first time, creates the World from the
+     * loaded maze objects and restores the state of a resumed game. Also, sets up the textures of the player
+     * character. When the screen is shown again after the game was paused, everything is still there.
      */
     @Override
     public void show() {
+        // The stage of the previous screen must not receive the clicks while the game is running
+        Gdx.input.setInputProcessor(null);
+        if (world != null) {
+            return;
+        }
+
+        // Sort, index and place the maze objects, the World runs the game logic from now on
+        // The seed is kept, so a recording can create the same World again
+        long seed = new Random().nextLong();
+        world = new World(levelLoader.getLayout(), mazeLayout, character, new Random(seed));
+        world.setChaseMode(CHASE_MODE);
+        // All enemies may be visible at once, so finding them never grows the array during a frame
+        visibleEnemies.ensureCapacity(world.getEnemies().size());
+        // The time budget depends on the speed of the computer, a recorded game lets every enemy decide every step
+        world.getAiScheduler().setBudget(RECORD_INPUT ? 0 : AI_BUDGET_MICROS * 1000, AI_ORDER);
+        boolean resumed = game.isResumeGame();
+        if (resumed) {
+            // Continue exactly where the game was paused, the maze objects of the level are the same
+            try {
+                world.restoreState(game.getResumeState());
+            } catch (IllegalArgumentException e) {
+                // A save game of a map that changed since, the level starts from the beginning
+                Gdx.app.error("GameScreen", "Could not restore the saved game", e);
+            }
+            game.setResumeGame(false);
+        }
+        if (RECORD_INPUT) {
+            // A resumed game is replayed from its snapshot, a new game from the seed alone
+            GameState initialState = resumed ? world.saveState(level, filePath) : null;
+            recording = new InputRecording(ReadPropertiesFile.mapFileName(level, filePath), world.getLayoutChecksum(),
+                    seed, timestep.getStep(), CHASE_MODE, FAR_STEP_TIME, initialState);
+        }
 
-        if(game.isResumeGame()){
-            returnGameStatus = game.getReturnGameStatus();
-            character.setKeyCollected((Boolean) returnGameStatus.get("isKeyCollected"));
-            character.setNumOfLives((Integer) returnGameStatus.get("livesLeft"));
+        // Get the regions for different player character directions, the atlas was already uploaded by the LevelLoader
+        playerRegions = new TextureRegion[PLAYER_TEXTURES.length];
+        for (int i = 0; i < PLAYER_TEXTURES.length; i++) {
+            playerRegions[i] = TextureRegistry.acquireRegion(PLAYER_TEXTURES[i]);
         }
+        enemyRegion = TextureRegistry.acquireRegion(Enemy.TEXTURE);
+        levelLoader.releasePreloadedTextures();
 
-        // Record the starting time of the game for calculating completion time
-        gameStartTime = TimeUtils.nanoTime();
+        // Write the objects that never move into the caches once, they are the same objects after resuming
+        if (staticGeometry == null) {
+            staticGeometry = new StaticGeometry();
+            staticGeometry.addAll(StaticGeometry.FLOOR, world.getTraps());
+            staticGeometry.addAll(StaticGeometry.STRUCTURE, world.getWalls());
+            staticGeometry.addAll(StaticGeometry.STRUCTURE, world.getExits());
+            staticGeometry.add(StaticGeometry.STRUCTURE, world.getEntry());
+            staticGeometry.build();
+        }
+    }
 
+    /**
+     * Called when the screen is no longer the current screen of the game, for example while the game is paused.
+     * The screen keeps all its resources, the World simply does not advance while render() is not called.
+     */
+    @Override
+    public void hide() {
+    }
 
-        // Initialize arrays for game objects
-        enemyArray = new Array<>();
-        trapArray = new Array<>();
-        wallArray = new Array<>();
-        exitArray = new Array<>();
+    /**
+     * Writes the recording of this game to the local "replays" directory, named after the level and the time.
+     */
+    private void writeRecording() {
+        FileHandle file = Gdx.files.local("replays/level-" + level + "-" + TimeUtils.millis() + InputRecording.EXTENSION);
+        try {
+            recording.write(file.file());
+            Gdx.app.log("GameScreen", "Recorded " + recording.getTickCount() + " steps in " + recording.getRunCount()
+                    + " runs to " + file.path());
+        } catch (IOException e) {
+            Gdx.app.error("GameScreen", "Could not write the recording " + file.path(), e);
+        }
+        recording = null;
+    }
 
-        // Populate game object arrays based on the provided maze layout
+    /**
+     * Disposes of resources associated with the GameScreen when it is no longer needed.
+     * This method is called when the game is closing or when switching to another screen.
+     * Textures are shared through the TextureRegistry, so only the references of this screen are released.
+     */
+    @Override
+    public void dispose() {
+        if (disposed) {
+            return;
+        }
+        disposed = true;
+        hud.dispose();
+        if (recording != null) {
+            writeRecording();
+        }
+
+        // The level was abandoned while it was still loading, the loader still owns everything
+        if (!levelLoader.isFinished() || mazeLayout == null) {
+            levelLoader.cancel();
+            return;
+        }
+
+        if (staticGeometry != null) {
+            staticGeometry.dispose();
+            staticGeometry = null;
+        }
+
+        // Release the shared textures of the maze objects, the registry disposes them once no level uses them
         if (mazeLayout != null) {
             for (MazeObject mazeObject : mazeLayout) {
-                if (mazeObject instanceof Enemy) {
-                    // Record initial positions for enemies
-                    ((Enemy) mazeObject).setPrevX(mazeObject.getX());
-                    ((Enemy) mazeObject).setPrevY(mazeObject.getY());
-                    enemyArray.add((Enemy) mazeObject);
-                }
-                if (mazeObject instanceof Exit) {
-                    exitArray.add((Exit) mazeObject);
-                }
-                if (mazeObject instanceof Entry) {
-                    entry = (Entry) mazeObject;
-                    // Set initial position for the player character
-                    if (!game.isResumeGame()){
-                        playerX = entry.getX() + 15;
-                        playerY = entry.getY() + 5;
-                    } else {
-                        returnGameStatus = game.getReturnGameStatus();
-                        playerX = (Float) returnGameStatus.get("playerX");
-                        playerY = (Float) returnGameStatus.get("playerY");
-                        game.setResumeGame(false);
-                    }
-                }
-                if (mazeObject instanceof Key) {
-                    key = (Key) mazeObject;
-                }
-                if (mazeObject instanceof Trap) {
-                    trapArray.add((Trap) mazeObject);
-                }
-                if (mazeObject instanceof Wall) {
-                    wallArray.add((Wall) mazeObject);
+                if (mazeObject != null) {
+                    mazeObject.dispose();
                 }
             }
+            mazeLayout = null;
         }
 
-        // Load textures for different player character directions
-        player = new Texture(Gdx.files.internal("characterF.png"));
-        playerU = new Texture(Gdx.files.internal("characterU.png"));
-        playerL = new Texture(Gdx.files.internal("characterL.png"));
-        playerR = new Texture(Gdx.files.internal("characterR.png"));
-        playerB = new Texture(Gdx.files.internal("characterB.png"));
-
-        // Initialize the player character's rectangle for collision detection
-        rectanglePlayer = new Rectangle(playerX, playerY, playerWidth, playerHeight);
+        // Release the regions of the player character and the enemies if they were acquired in show()
+        if (playerRegions != null) {
+            for (int i = 0; i < PLAYER_TEXTURES.length; i++) {
+                TextureRegistry.releaseRegion();
+            }
+            TextureRegistry.releaseRegion();
+            playerRegions = null;
+        }
+        levelLoader.releasePreloadedTextures();
 
-        // Record the initial position of the player character
-        prevX = playerX;
-        prevY = playerY;
+        lifeLostSound.dispose();
+        keyCollectedSound.dispose();
+        victorySound.dispose();
+        gameOverSound.dispose();
 
+        // Fails the game if enabled and a frame allocated, after everything is disposed
+        allocationMonitor.report();
     }
 
     /**
-     * Called when the screen is no longer the current screen of the game. This method is typically used
-     * for cleanup and resource disposal when switching to another screen or exiting the application.
+     * Gets the draw calls and vertices of the last frame.
+     *
+     * @return The render statistics.
      */
-    @Override
-    public void hide() {
+    public RenderStats getRenderStats() {
+        return renderStats;
     }
 
     /**
-     * Disposes of resources associated with the GameScreen when it is no longer needed.
-     * This method is called when the game is closing or when switching to another screen.
+     * Gets the loader of the level shown by this screen.
+     *
+     * @return The LevelLoader of this screen.
      */
-    @Override
-    public void dispose() {
-
+    public LevelLoader getLevelLoader() {
+        return levelLoader;
     }
 
     /**
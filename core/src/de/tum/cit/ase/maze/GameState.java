@@ -0,0 +1,459 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The GameState class is an immutable snapshot of a running level, taken when the game is paused and restored when
+ * it is resumed. It holds everything the {@link World} changes while the game runs: the position and the previous
+ * positions of the player, the lives, the key and the direction of the character, the complete state of the enemies,
+ * the overlap timers of the traps and exits, the simulated time and whether the game ended.
+ * <p>
+ * The snapshot only holds primitive values and arrays, the maze objects themselves never change and are not copied.
+ * It is restored with {@link World#restoreState(GameState)} into a World created from the same level, so taking and
+ * restoring it only copies a few arrays and does not need the map to be parsed again. The time budget of the
+ * {@link AiScheduler} depends on the speed of the computer and its state is not part of the snapshot.
+ * <p>
+ * A snapshot can be written to a save game with {@link SaveGame}. It only holds what changed since the level was
+ * loaded, the walls and the other maze objects come from the map, identified by the checksum of its layout.
+ */
+public final class GameState {
+
+    /**
+     * Variables for the level the snapshot belongs to
+     */
+    private final int level;
+    private final String filePath;
+    private final int layoutChecksum;
+
+    /**
+     * Variables for the state of the game
+     */
+    private final long ticks;
+    private final float elapsedTime;
+    private final int completedIn;
+    private final boolean gameOver;
+    private final boolean gameWon;
+
+    /**
+     * Variables for the player and the character
+     */
+    private final float playerX, playerY;
+    private final float prevX, prevY;
+    private final float lastPlayerX, lastPlayerY;
+    private final int numOfLives;
+    private final boolean keyCollected;
+    private final Direction direction;
+
+    /**
+     * Variables for the enemies, traps and exits
+     */
+    private final EnemyStore.State enemies;
+    private final float[] trapTimers;
+    private final float[] exitTimers;
+
+    /**
+     * Constructor for GameState. Copies the current state of a World, see {@link World#saveState(int, String)}.
+     *
+     * @param world    The World to copy.
+     * @param level    The level of the World, between 1 and 6.
+     * @param filePath The path of the custom map of level 6, or null.
+     */
+    GameState(World world, int level, String filePath) {
+        this.level = level;
+        this.filePath = filePath;
+        layoutChecksum = world.getLayoutChecksum();
+
+        ticks = world.getTicks();
+        elapsedTime = world.getElapsedTime();
+        completedIn = world.getCompletedIn();
+        gameOver = world.isGameOver();
+        gameWon = world.isGameWon();
+
+        playerX = world.getPlayerX();
+        playerY = world.getPlayerY();
+        prevX = world.getPrevPlayerX();
+        prevY = world.getPrevPlayerY();
+        lastPlayerX = world.getPlayerX(0);
+        lastPlayerY = world.getPlayerY(0);
+        Character character = world.getCharacter();
+        numOfLives = character.getNumOfLives();
+        keyCollected = character.isKeyCollected();
+        direction = character.getDirection();
+
+        enemies = world.getEnemies().saveState();
+        Array<Trap> traps = world.getTraps();
+        trapTimers = new float[traps.size];
+        for (int i = 0; i < traps.size; i++) {
+            trapTimers[i] = traps.get(i).getOverlapTimer();
+        }
+        Array<Exit> exits = world.getExits();
+        exitTimers = new float[exits.size];
+        for (int i = 0; i < exits.size; i++) {
+            exitTimers[i] = exits.get(i).getOverlapTimer();
+        }
+    }
+
+    /**
+     * Constructor for GameState. Reads a snapshot written by {@link #write(ByteBuffer)}.
+     */
+    private GameState(ByteBuffer buffer) {
+        level = buffer.getInt();
+        int pathLength = buffer.getInt();
+        if (pathLength < 0) {
+            filePath = null;
+        } else {
+            if (pathLength > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            byte[] path = new byte[pathLength];
+            buffer.get(path);
+            filePath = new String(path, StandardCharsets.UTF_8);
+        }
+        layoutChecksum = buffer.getInt();
+
+        ticks = buffer.getLong();
+        elapsedTime = buffer.getFloat();
+        completedIn = buffer.getInt();
+        gameOver = buffer.get() != 0;
+        gameWon = buffer.get() != 0;
+
+        playerX = buffer.getFloat();
+        playerY = buffer.getFloat();
+        prevX = buffer.getFloat();
+        prevY = buffer.getFloat();
+        lastPlayerX = buffer.getFloat();
+        lastPlayerY = buffer.getFloat();
+        numOfLives = buffer.getInt();
+        keyCollected = buffer.get() != 0;
+        // The player faces one of the movement directions, or BACK, which follows them, while leaving through an exit
+        int ordinal = buffer.get();
+        if (ordinal < 0 || ordinal > Direction.MOVEMENT_DIRECTIONS) {
+            throw new IllegalArgumentException("Unknown direction " + ordinal);
+        }
+        direction = Direction.of(ordinal);
+
+        enemies = EnemyStore.State.read(buffer);
+        trapTimers = readTimers(buffer);
+        exitTimers = readTimers(buffer);
+    }
+
+    /**
+     * Reads a snapshot written by {@link #write(ByteBuffer)}.
+     *
+     * @param buffer The buffer, positioned at the snapshot.
+     * @return The snapshot.
+     * @throws BufferUnderflowException If the buffer ends before the snapshot.
+     * @throws IllegalArgumentException If the snapshot contains invalid values.
+     */
+    static GameState read(ByteBuffer buffer) {
+        return new GameState(buffer);
+    }
+
+    /**
+     * Writes the snapshot in a binary form. The timers of the traps and exits are only written if they are running,
+     * which is rarely more than one of them.
+     *
+     * @param buffer The buffer with at least {@link #getSerializedSize()} bytes remaining.
+     */
+    void write(ByteBuffer buffer) {
+        buffer.putInt(level);
+        if (filePath == null) {
+            buffer.putInt(-1);
+        } else {
+            byte[] path = filePath.getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(path.length);
+            buffer.put(path);
+        }
+        buffer.putInt(layoutChecksum);
+
+        buffer.putLong(ticks);
+        buffer.putFloat(elapsedTime);
+        buffer.putInt(completedIn);
+        buffer.put((byte) (gameOver ? 1 : 0));
+        buffer.put((byte) (gameWon ? 1 : 0));
+
+        buffer.putFloat(playerX);
+        buffer.putFloat(playerY);
+        buffer.putFloat(prevX);
+        buffer.putFloat(prevY);
+        buffer.putFloat(lastPlayerX);
+        buffer.putFloat(lastPlayerY);
+        buffer.putInt(numOfLives);
+        buffer.put((byte) (keyCollected ? 1 : 0));
+        buffer.put((byte) direction.ordinal());
+
+        enemies.write(buffer);
+        writeTimers(buffer, trapTimers);
+        writeTimers(buffer, exitTimers);
+    }
+
+    /**
+     * Gets the number of bytes {@link #write(ByteBuffer)} writes.
+     *
+     * @return The size in bytes.
+     */
+    int getSerializedSize() {
+        int size = 4 + 4 + 4 + 8 + 4 + 4 + 1 + 1 + 6 * 4 + 4 + 1 + 1;
+        if (filePath != null) {
+            size += filePath.getBytes(StandardCharsets.UTF_8).length;
+        }
+        return size + enemies.getSerializedSize() + timersSize(trapTimers) + timersSize(exitTimers);
+    }
+
+    /**
+     * Writes the number of timers and the index and value of every timer that is not 0.
+     */
+    private static void writeTimers(ByteBuffer buffer, float[] timers) {
+        buffer.putInt(timers.length);
+        int running = 0;
+        for (float timer : timers) {
+            if (timer != 0) {
+                running++;
+            }
+        }
+        buffer.putInt(running);
+        for (int i = 0; i < timers.length; i++) {
+            if (timers[i] != 0) {
+                buffer.putInt(i);
+                buffer.putFloat(timers[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads timers written by {@link #writeTimers(ByteBuffer, float[])}.
+     */
+    private static float[] readTimers(ByteBuffer buffer) {
+        int count = buffer.getInt();
+        int running = buffer.getInt();
+        if (count < 0 || running < 0 || running > count) {
+            throw new IllegalArgumentException("Invalid number of timers " + running + " of " + count);
+        }
+        float[] timers = new float[count];
+        for (int j = 0; j < running; j++) {
+            int i = buffer.getInt();
+            if (i < 0 || i >= count) {
+                throw new IllegalArgumentException("Invalid timer index " + i);
+            }
+            timers[i] = buffer.getFloat();
+        }
+        return timers;
+    }
+
+    /**
+     * Gets the number of bytes {@link #writeTimers(ByteBuffer, float[])} writes.
+     */
+    private static int timersSize(float[] timers) {
+        int size = 8;
+        for (float timer : timers) {
+            if (timer != 0) {
+                size += 8;
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Gets the level the snapshot was taken in.
+     *
+     * @return The level, between 1 and 6.
+     */
+    public int getLevel() {
+        return level;
+    }
+
+    /**
+     * Gets the path of the custom map the snapshot was taken in.
+     *
+     * @return The path of the map of level 6, or null for the other levels.
+     */
+    public String getFilePath() {
+        return filePath;
+    }
+
+    /**
+     * Gets the checksum of the layout of the map the snapshot was taken in, see {@link MazeLayout#getChecksum()}.
+     *
+     * @return The checksum of the layout.
+     */
+    public int getLayoutChecksum() {
+        return layoutChecksum;
+    }
+
+    /**
+     * Gets the number of steps simulated until the snapshot was taken.
+     *
+     * @return The number of steps.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Gets the simulated time until the snapshot was taken.
+     *
+     * @return The elapsed time in seconds.
+     */
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the time in seconds it took to finish the level.
+     *
+     * @return The completion time, or 0 if the level was not won.
+     */
+    public int getCompletedIn() {
+        return completedIn;
+    }
+
+    /**
+     * Checks if the game was over when the snapshot was taken.
+     *
+     * @return True if the character had lost all lives.
+     */
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    /**
+     * Checks if the level was won when the snapshot was taken.
+     *
+     * @return True if the character had left the maze through an exit.
+     */
+    public boolean isGameWon() {
+        return gameWon;
+    }
+
+    /**
+     * Gets the x-coordinate of the player.
+     *
+     * @return The x-coordinate of the player.
+     */
+    public float getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Gets the y-coordinate of the player.
+     *
+     * @return The y-coordinate of the player.
+     */
+    public float getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Gets the x-coordinate the player is moved back to when it bumps into something.
+     *
+     * @return The previous x-coordinate of the player.
+     */
+    public float getPrevX() {
+        return prevX;
+    }
+
+    /**
+     * Gets the y-coordinate the player is moved back to when it bumps into something.
+     *
+     * @return The previous y-coordinate of the player.
+     */
+    public float getPrevY() {
+        return prevY;
+    }
+
+    /**
+     * Gets the x-coordinate of the player at the start of the last step, used for interpolation.
+     *
+     * @return The x-coordinate of the player before the last step.
+     */
+    public float getLastPlayerX() {
+        return lastPlayerX;
+    }
+
+    /**
+     * Gets the y-coordinate of the player at the start of the last step, used for interpolation.
+     *
+     * @return The y-coordinate of the player before the last step.
+     */
+    public float getLastPlayerY() {
+        return lastPlayerY;
+    }
+
+    /**
+     * Gets the number of lives the character had left.
+     *
+     * @return The number of lives.
+     */
+    public int getNumOfLives() {
+        return numOfLives;
+    }
+
+    /**
+     * Checks if the character had collected the key.
+     *
+     * @return True if the key was collected.
+     */
+    public boolean isKeyCollected() {
+        return keyCollected;
+    }
+
+    /**
+     * Gets the direction the character was facing.
+     *
+     * @return The direction of the character.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * Gets the state of the enemies.
+     *
+     * @return The snapshot of the enemies.
+     */
+    public EnemyStore.State getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * Gets the number of traps in the snapshot.
+     *
+     * @return The number of traps.
+     */
+    public int getTrapCount() {
+        return trapTimers.length;
+    }
+
+    /**
+     * Gets how long the player had touched a trap.
+     *
+     * @param i The index of the trap in the traps of the World.
+     * @return The overlap timer of the trap in seconds.
+     */
+    public float getTrapTimer(int i) {
+        return trapTimers[i];
+    }
+
+    /**
+     * Gets the number of exits in the snapshot.
+     *
+     * @return The number of exits.
+     */
+    public int getExitCount() {
+        return exitTimers.length;
+    }
+
+    /**
+     * Gets how long the player had touched an exit.
+     *
+     * @param i The index of the exit in the exits of the World.
+     * @return The overlap timer of the exit in seconds.
+     */
+    public float getExitTimer(int i) {
+        return exitTimers[i];
+    }
+}
@@ -13,8 +13,10 @@
 /**
  * Represents the Heads-Up Display (HUD) in the maze game.
  * Manages and displays essential information such as the number of lives and whether the key is collected.
+ * One HUD is created per GameScreen. It listens to the character and only updates its labels when the number of
+ * lives or the key status actually changed.
  */
-public class HUD {
+public class HUD implements Character.Listener {
 
     //The stage for rendering the HUD components.
     public Stage stage;
@@ -22,12 +24,18 @@ public class HUD {
     //The viewport for the HUD.
     private Viewport viewport;
 
+    //The character displayed by the HUD.
+    private final Character character;
+
     //The current number of lives.
     private int numOfLives;
 
     //Indicates whether the key is collected or not.
     private boolean isKeyCollected;
 
+    //Set by the character listener, the labels are updated in the next call of update().
+    private boolean changed = false;
+
     //Labels for displaying HUD information.
     Label numOfLivesLabel;
     Label isKeyCollectedLabel;
@@ -40,12 +48,14 @@ public class HUD {
      *
      * @param sb The SpriteBatch used for rendering.
      * @param character The character object for which the HUD is displayed.
+     * @param font The font shared by all labels, owned by the skin of the game.
      */
-    public HUD(SpriteBatch sb, Character character){
+    public HUD(SpriteBatch sb, Character character, BitmapFont font){
+        this.character = character;
         numOfLives = character.getNumOfLives();
         isKeyCollected = character.isKeyCollected();
         viewport = new FitViewport(MazeRunnerGame.V_WIDTH, MazeRunnerGame.V_HEIGHT, new OrthographicCamera());
-        stage = new Stage(viewport, sb);
+        stage = new CountedStage(viewport, sb);
 
         Table table = new Table();
         table. top();
@@ -53,10 +63,12 @@ public HUD(SpriteBatch sb, Character character){
 
         String isKeyCollectedString = isKeyCollected ? "YES" : "NO";
 
-        numOfLivesL = new Label(String.format("%01d", numOfLives), new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        isKeyCollectedL = new Label(isKeyCollectedString, new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        numOfLivesLabel = new Label("Number Of lives:", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
-        isKeyCollectedLabel = new Label("Is Key Collected:", new Label.LabelStyle(new BitmapFont(), Color.WHITE));
+        // All labels share one style and therefore one font
+        Label.LabelStyle labelStyle = new Label.LabelStyle(font, Color.WHITE);
+        numOfLivesL = new Label(String.format("%01d", numOfLives), labelStyle);
+        isKeyCollectedL = new Label(isKeyCollectedString, labelStyle);
+        numOfLivesLabel = new Label("Number Of lives:", labelStyle);
+        isKeyCollectedLabel = new Label("Is Key Collected:", labelStyle);
 
 
         table.add(numOfLivesLabel).expandX().padTop(0).padBottom(0);
@@ -67,7 +79,47 @@ public HUD(SpriteBatch sb, Character character){
 
         stage.addActor(table);
 
+        character.setListener(this);
+    }
+
+    /**
+     * Called by the character when its number of lives or its key status changed.
+     *
+     * @param character The character that changed.
+     */
+    @Override
+    public void characterChanged(Character character) {
+        changed = true;
+    }
 
+    /**
+     * Updates the labels if the character changed since the last update.
+     * Nothing is allocated or laid out again as long as nothing changed.
+     *
+     * @return True if the labels changed.
+     */
+    public boolean update() {
+        if (!changed) {
+            return false;
+        }
+        changed = false;
+        if (character.getNumOfLives() != numOfLives) {
+            numOfLives = character.getNumOfLives();
+            numOfLivesL.setText(String.format("%01d", numOfLives));
+        }
+        if (character.isKeyCollected() != isKeyCollected) {
+            isKeyCollected = character.isKeyCollected();
+            isKeyCollectedL.setText(isKeyCollected ? "YES" : "NO");
+        }
+        return true;
     }
 
+    /**
+     * Stops listening to the character and disposes of the stage.
+     * The font is not disposed, since it belongs to the skin of the game.
+     */
+    public void dispose() {
+        character.setListener(null);
+        stage.dispose();
+    }
 }
@@ -0,0 +1,375 @@
+package de.tum.cit.ase.maze;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * The InputRecording class records everything needed to run a level again exactly as it was played: the map, the seed
+ * of the enemy movement, the step time, and for every step the input of the player, the level of detail of the enemies
+ * and the hash of the {@link World} after the step. Recordings are replayed without a window by the
+ * {@link ReplayRunner}, which compares the hash after every step and reports the first step that differs.
+ * <p>
+ * The input rarely changes between two steps, so it is stored run-length encoded, one run per change of the held
+ * directions or of the level of detail. A recording (".mzr") has the same header as a {@link SaveGame}:
+ * <pre>
+ * int   magic ("MZR" + 0)        int   payload length
+ * int   version                  int   payload checksum (CRC32)
+ * payload: map path, layout checksum, seed, step time, chase mode, far step time, optional GameState the recording
+ *          starts from, the runs (length, direction bits, level of detail) and one hash per step
+ * </pre>
+ * The time budget of the enemy decisions depends on the speed of the computer, so the GameScreen lets every enemy
+ * decide every step while recording.
+ */
+public class InputRecording {
+
+    //File extension of recordings.
+    public static final String EXTENSION = ".mzr";
+
+    //Version of the binary layout, recordings with another version cannot be replayed.
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x4D5A5200;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4;
+
+    /**
+     * Variables for the level and the settings the recording was made with
+     */
+    private final String mapPath;
+    private final int layoutChecksum;
+    private final long seed;
+    private final float step;
+    private final boolean chaseMode;
+    private final float farStepTime;
+    private final byte[] initialState;
+
+    /**
+     * Variables for the runs of equal input, and the hash after every step
+     */
+    private int runCount;
+    private int[] runLengths = new int[16];
+    private byte[] runInputs = new byte[16];
+    private float[] runLodDistances = new float[16];
+    private int tickCount;
+    private int[] hashes = new int[1024];
+
+    /**
+     * Constructor for InputRecording. Starts an empty recording of a World that was just created, or restored from
+     * a snapshot.
+     *
+     * @param mapPath        The path of the properties file of the map.
+     * @param layoutChecksum The checksum of the layout of the map, see {@link MazeLayout#getChecksum()}.
+     * @param seed           The seed of the Random the World was created with.
+     * @param step           The time of one step in seconds.
+     * @param chaseMode      Whether the enemies chase the player.
+     * @param farStepTime    The time between two updates of an enemy outside the level of detail distance.
+     * @param initialState   The snapshot the World was restored from before the first step, or null.
+     */
+    public InputRecording(String mapPath, int layoutChecksum, long seed, float step, boolean chaseMode,
+                          float farStepTime, GameState initialState) {
+        this.mapPath = mapPath;
+        this.layoutChecksum = layoutChecksum;
+        this.seed = seed;
+        this.step = step;
+        this.chaseMode = chaseMode;
+        this.farStepTime = farStepTime;
+        if (initialState == null) {
+            this.initialState = null;
+        } else {
+            ByteBuffer buffer = ByteBuffer.allocate(initialState.getSerializedSize());
+            initialState.write(buffer);
+            this.initialState = buffer.array();
+        }
+    }
+
+    /**
+     * Constructor for InputRecording. Reads the payload of a recording written by {@link #encode()}.
+     */
+    private InputRecording(ByteBuffer buffer) {
+        byte[] path = new byte[checkedLength(buffer, buffer.getInt())];
+        buffer.get(path);
+        mapPath = new String(path, StandardCharsets.UTF_8);
+        layoutChecksum = buffer.getInt();
+        seed = buffer.getLong();
+        step = buffer.getFloat();
+        chaseMode = buffer.get() != 0;
+        farStepTime = buffer.getFloat();
+        int stateLength = buffer.getInt();
+        if (stateLength < 0) {
+            initialState = null;
+        } else {
+            initialState = new byte[checkedLength(buffer, stateLength)];
+            buffer.get(initialState);
+        }
+
+        runCount = checkedLength(buffer, buffer.getInt());
+        runLengths = new int[runCount];
+        runInputs = new byte[runCount];
+        runLodDistances = new float[runCount];
+        long total = 0;
+        for (int i = 0; i < runCount; i++) {
+            runLengths[i] = buffer.getInt();
+            runInputs[i] = buffer.get();
+            runLodDistances[i] = buffer.getFloat();
+            if (runLengths[i] <= 0) {
+                throw new IllegalArgumentException("Invalid run length " + runLengths[i]);
+            }
+            total += runLengths[i];
+        }
+        tickCount = checkedLength(buffer, buffer.getInt());
+        if (total != tickCount) {
+            throw new IllegalArgumentException("The runs cover " + total + " of " + tickCount + " steps");
+        }
+        hashes = new int[tickCount];
+        for (int i = 0; i < tickCount; i++) {
+            hashes[i] = buffer.getInt();
+        }
+    }
+
+    /**
+     * Records one step: the input and the level of detail it ran with, and the hash of the World after it.
+     *
+     * @param input       The input of the step.
+     * @param lodDistance The level of detail distance of the enemies during the step.
+     * @param hash        The hash of the World after the step, see {@link World#getStateHash()}.
+     */
+    public void record(InputState input, float lodDistance, int hash) {
+        byte bits = (byte) input.getBits();
+        if (runCount == 0 || runInputs[runCount - 1] != bits || runLodDistances[runCount - 1] != lodDistance) {
+            if (runCount == runLengths.length) {
+                runLengths = Arrays.copyOf(runLengths, runCount * 2);
+                runInputs = Arrays.copyOf(runInputs, runCount * 2);
+                runLodDistances = Arrays.copyOf(runLodDistances, runCount * 2);
+            }
+            runInputs[runCount] = bits;
+            runLodDistances[runCount] = lodDistance;
+            runCount++;
+        }
+        runLengths[runCount - 1]++;
+
+        if (tickCount == hashes.length) {
+            hashes = Arrays.copyOf(hashes, tickCount * 2);
+        }
+        hashes[tickCount++] = hash;
+    }
+
+    /**
+     * Encodes the recording with its header.
+     *
+     * @return The bytes of the recording file.
+     */
+    public byte[] encode() {
+        byte[] path = mapPath.getBytes(StandardCharsets.UTF_8);
+        int payloadSize = 4 + path.length + 4 + 8 + 4 + 1 + 4 + 4 + (initialState == null ? 0 : initialState.length)
+                + 4 + runCount * (4 + 1 + 4) + 4 + tickCount * 4;
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+        buffer.position(HEADER_SIZE);
+        buffer.putInt(path.length);
+        buffer.put(path);
+        buffer.putInt(layoutChecksum);
+        buffer.putLong(seed);
+        buffer.putFloat(step);
+        buffer.put((byte) (chaseMode ? 1 : 0));
+        buffer.putFloat(farStepTime);
+        if (initialState == null) {
+            buffer.putInt(-1);
+        } else {
+            buffer.putInt(initialState.length);
+            buffer.put(initialState);
+        }
+        buffer.putInt(runCount);
+        for (int i = 0; i < runCount; i++) {
+            buffer.putInt(runLengths[i]);
+            buffer.put(runInputs[i]);
+            buffer.putFloat(runLodDistances[i]);
+        }
+        buffer.putInt(tickCount);
+        for (int i = 0; i < tickCount; i++) {
+            buffer.putInt(hashes[i]);
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, payloadSize);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, payloadSize);
+        buffer.putInt(12, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Writes the recording through a temporary file, see {@link SaveGame#writeAtomically(File, byte[])}.
+     *
+     * @param file The recording file, its directory is created if needed.
+     * @throws IOException If the recording cannot be written.
+     */
+    public void write(File file) throws IOException {
+        SaveGame.writeAtomically(file, encode());
+    }
+
+    /**
+     * Reads a recording.
+     *
+     * @param file The recording file.
+     * @return The recording.
+     * @throws IOException If the file cannot be read, is not a recording, is from another version or is corrupt.
+     */
+    public static InputRecording read(File file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file.toPath()));
+        if (buffer.remaining() < HEADER_SIZE || buffer.getInt() != MAGIC) {
+            throw new IOException(file.getPath() + " is not a recording");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new IOException(file.getPath() + " has version " + version + ", expected " + VERSION);
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.remaining());
+        if (length != buffer.remaining() || (int) crc.getValue() != checksum) {
+            throw new IOException(file.getPath() + " is corrupt");
+        }
+        try {
+            return new InputRecording(buffer);
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException(file.getPath() + " is corrupt", e);
+        }
+    }
+
+    /**
+     * Checks a length read from the buffer against the remaining bytes.
+     */
+    private static int checkedLength(ByteBuffer buffer, int length) {
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        return length;
+    }
+
+    /**
+     * Gets the path of the properties file of the map.
+     *
+     * @return The path of the map.
+     */
+    public String getMapPath() {
+        return mapPath;
+    }
+
+    /**
+     * Gets the checksum of the layout of the map.
+     *
+     * @return The checksum of the layout, see {@link MazeLayout#getChecksum()}.
+     */
+    public int getLayoutChecksum() {
+        return layoutChecksum;
+    }
+
+    /**
+     * Gets the seed of the Random the World was created with.
+     *
+     * @return The seed.
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the time of one step.
+     *
+     * @return The step time in seconds.
+     */
+    public float getStep() {
+        return step;
+    }
+
+    /**
+     * Checks whether the enemies chased the player.
+     *
+     * @return True if the chase mode was enabled.
+     */
+    public boolean isChaseMode() {
+        return chaseMode;
+    }
+
+    /**
+     * Gets the time between two updates of an enemy outside the level of detail distance.
+     *
+     * @return The far step time in seconds.
+     */
+    public float getFarStepTime() {
+        return farStepTime;
+    }
+
+    /**
+     * Gets the snapshot the World was restored from before the first step.
+     *
+     * @return The snapshot, or null if the recording starts with a new World.
+     */
+    public GameState getInitialState() {
+        return initialState == null ? null : GameState.read(ByteBuffer.wrap(initialState));
+    }
+
+    /**
+     * Gets the number of runs of steps with the same input.
+     *
+     * @return The number of runs.
+     */
+    public int getRunCount() {
+        return runCount;
+    }
+
+    /**
+     * Gets the number of steps of a run.
+     *
+     * @param run The index of the run.
+     * @return The number of steps.
+     */
+    public int getRunLength(int run) {
+        return runLengths[run];
+    }
+
+    /**
+     * Gets the held directions of a run.
+     *
+     * @param run The index of the run.
+     * @return The directions as bits, see {@link InputState#getBits()}.
+     */
+    public int getRunInput(int run) {
+        return runInputs[run];
+    }
+
+    /**
+     * Gets the level of detail distance of a run.
+     *
+     * @param run The index of the run.
+     * @return The distance in pixels, 0 if all enemies were updated every step.
+     */
+    public float getRunLodDistance(int run) {
+        return runLodDistances[run];
+    }
+
+    /**
+     * Gets the number of recorded steps.
+     *
+     * @return The number of steps.
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * Gets the hash of the World after a step.
+     *
+     * @param tick The index of the step, starting at 0.
+     * @return The hash, see {@link World#getStateHash()}.
+     */
+    public int getHash(int tick) {
+        return hashes[tick];
+    }
+}
@@ -0,0 +1,88 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The InputState class holds the player input of one simulation step: which movement directions are held down.
+ * It is filled from the keyboard by the GameScreen, or by a script or recording when the World runs headless.
+ * The same instance is reused every step, so reading input does not allocate.
+ */
+public class InputState {
+
+    //Whether the player holds the key for each direction.
+    private boolean up, down, left, right;
+
+    /**
+     * Sets all directions at once.
+     *
+     * @param up    True if the player moves up.
+     * @param down  True if the player moves down.
+     * @param left  True if the player moves left.
+     * @param right True if the player moves right.
+     */
+    public void set(boolean up, boolean down, boolean left, boolean right) {
+        this.up = up;
+        this.down = down;
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Sets all directions from the bits returned by {@link #getBits()}.
+     *
+     * @param bits The directions, 1 for up, 2 for down, 4 for left and 8 for right.
+     */
+    public void setBits(int bits) {
+        set((bits & 1) != 0, (bits & 2) != 0, (bits & 4) != 0, (bits & 8) != 0);
+    }
+
+    /**
+     * Gets all directions as bits, used to record the input compactly.
+     *
+     * @return The directions, 1 for up, 2 for down, 4 for left and 8 for right.
+     */
+    public int getBits() {
+        return (up ? 1 : 0) | (down ? 2 : 0) | (left ? 4 : 0) | (right ? 8 : 0);
+    }
+
+    /**
+     * Releases all directions.
+     */
+    public void clear() {
+        set(false, false, false, false);
+    }
+
+    /**
+     * Checks if the player moves up.
+     *
+     * @return True if the up direction is held down.
+     */
+    public boolean isUp() {
+        return up;
+    }
+
+    /**
+     * Checks if the player moves down.
+     *
+     * @return True if the down direction is held down.
+     */
+    public boolean isDown() {
+        return down;
+    }
+
+    /**
+     * Checks if the player moves left.
+     *
+     * @return True if the left direction is held down.
+     */
+    public boolean isLeft() {
+        return left;
+    }
+
+    /**
+     * Checks if the player moves right.
+     *
+     * @return True if the right direction is held down.
+     */
+    public boolean isRight() {
+        return right;
+    }
+}
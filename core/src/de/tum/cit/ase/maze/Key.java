@@ -1,13 +1,12 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-
 /**
  * Represents the entry point in the maze game.
  * Extends the MazeObject class.
  */
 public class Key extends MazeObject{
+    //The image of the key.
+    public static final String TEXTURE = "key.png";
 
     /**
      * Constructs a Key object with the specified coordinates.
@@ -16,7 +15,7 @@ public class Key extends MazeObject{
      * @param y The y-coordinate of the key.
      */
     public Key(float x, float y) {
-        super(new Texture(Gdx.files.internal("key.png")), x, y);
+        super(TEXTURE, x, y);
     }
 
 }
@@ -0,0 +1,311 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.util.ArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * The LevelLoader class loads everything a level needs without blocking the render thread.
+ * Parsing the map and decoding the sprite atlas happens on a background thread. Afterwards {@link #update(long)} is
+ * called once per frame on the render thread and finishes the work that needs the GL or audio context (the atlas
+ * upload, creating the MazeObjects and loading the sounds) in small slices, so the window keeps responding.
+ */
+public class LevelLoader {
+
+    //Sound effects used by the GameScreen.
+    public static final String LIFE_LOST_SOUND = "lifeLost.wav";
+    public static final String KEY_COLLECTED_SOUND = "keyCollect.mp3";
+    public static final String VICTORY_SOUND = "victory.mp3";
+    public static final String GAME_OVER_SOUND = "GameOver.wav";
+    private static final String[] SOUNDS = {LIFE_LOST_SOUND, KEY_COLLECTED_SOUND, VICTORY_SOUND, GAME_OVER_SOUND};
+
+    //A single background thread shared by all loaders, it does not keep the application alive.
+    private static final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "LevelLoader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final int level;
+    private final String filePath;
+
+    //The background work, its result once it was handed to the render thread, and whether the loader was abandoned.
+    private Future<Decoded> decoding;
+    private Decoded decoded;
+    private boolean cancelled = false;
+
+    //The result of the background work, published under the lock of this loader unless it was abandoned.
+    private Decoded published;
+
+    //Why the level could not be loaded, null if it was loaded or is still loading.
+    private String error;
+
+    //Progress of the render thread work.
+    private boolean atlasUploaded = false;
+    private int objectsCreated;
+    private int tileCursor;
+    private int soundsLoaded;
+    private int workTotal = 1;
+    private boolean finished = false;
+
+    //The loaded level.
+    private final ArrayList<MazeObject> mazeObjects = new ArrayList<>();
+    private final Sound[] sounds = new Sound[SOUNDS.length];
+
+    //Whether this loader holds a reference to the sprite atlas until the level took over.
+    private boolean preloaded = false;
+
+    /**
+     * Everything that is prepared on the background thread.
+     */
+    private static class Decoded {
+        MazeLayout layout;
+        SpriteAtlas.Pages pages;
+    }
+
+    /**
+     * Constructor for LevelLoader.
+     *
+     * @param level    The level to load, between 1 and 6.
+     * @param filePath The path of the custom map, only used for level 6.
+     */
+    public LevelLoader(int level, String filePath) {
+        this.level = level;
+        this.filePath = filePath;
+    }
+
+    /**
+     * Starts parsing the map and decoding the sprite atlas on the background thread.
+     */
+    public void start() {
+        if (decoding == null) {
+            decoding = executor.submit(this::decode);
+        }
+    }
+
+    /**
+     * Runs on the background thread: parses the map and decodes the sprite atlas holding the images of all objects
+     * and of the player character, packing it first on the first launch.
+     */
+    private Decoded decode() {
+        Decoded result = new Decoded();
+        result.layout = new ReadPropertiesFile().parseLayout(level, filePath);
+        // If the atlas turns out to be resident already, the decoded pages are simply dropped on upload
+        result.pages = SpriteAtlas.decode();
+
+        // If the level was abandoned in the meantime, nobody else will free the decoded images, otherwise cancel()
+        // finds the published result and frees them
+        synchronized (this) {
+            if (cancelled) {
+                disposePixmaps(result);
+            } else {
+                published = result;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Continues loading on the render thread for at most the given time.
+     * The atlas upload or one sound is loaded per step; MazeObjects are created in batches until the time is used up.
+     *
+     * @param budgetNanos The time in nanoseconds that may be spent in this frame.
+     * @return True once the level is completely loaded, or it could not be loaded, see {@link #getError()}.
+     */
+    public boolean update(long budgetNanos) {
+        if (finished || error != null) {
+            return true;
+        }
+        start();
+        if (decoded == null) {
+            if (!decoding.isDone()) {
+                return false;
+            }
+            try {
+                decoded = decoding.get();
+            } catch (InterruptedException | ExecutionException e) {
+                error = "Could not load level " + level;
+                Gdx.app.error("LevelLoader", error, e);
+                return true;
+            }
+            // The World needs an entry and a key, a map that could not be read is empty
+            MazeLayout layout = decoded.layout;
+            if (layout.getCount(MazeLayout.ENTRY) == 0 || layout.getCount(MazeLayout.KEY) == 0) {
+                error = "The map " + ReadPropertiesFile.mapFileName(level, filePath)
+                        + (layout.getObjectCount() == 0 ? " could not be read" : " has no entry or no key");
+                Gdx.app.error("LevelLoader", error);
+                return true;
+            }
+            workTotal = 1 + decoded.layout.getObjectCount() + SOUNDS.length;
+        }
+
+        long deadline = TimeUtils.nanoTime() + budgetNanos;
+
+        // Upload the atlas in its own step, the registry keeps it resident while this loader holds a reference
+        if (!atlasUploaded) {
+            atlasUploaded = true;
+            if (decoded.pages != null) {
+                TextureRegistry.acquireAtlas(decoded.pages);
+                decoded.pages = null;
+                preloaded = true;
+            }
+            if (TimeUtils.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+
+        // Create the MazeObjects row by row, their regions of the atlas are resident so this only costs CPU time
+        MazeLayout layout = decoded.layout;
+        int tileCount = layout.getWidth() * layout.getHeight();
+        while (tileCursor < tileCount) {
+            int x = tileCursor % layout.getWidth();
+            int y = tileCursor / layout.getWidth();
+            tileCursor++;
+            byte objectValue = layout.getTile(x, y);
+            if (objectValue == MazeLayout.EMPTY) {
+                continue;
+            }
+            mazeObjects.add(ReadPropertiesFile.createMazeObject(objectValue, x * 64, y * 64));
+            objectsCreated++;
+            if ((objectsCreated & 63) == 0 && TimeUtils.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+
+        // Load one sound per step, decoding the audio has to happen on the render thread
+        while (soundsLoaded < SOUNDS.length) {
+            sounds[soundsLoaded] = Gdx.audio.newSound(Gdx.files.internal(SOUNDS[soundsLoaded]));
+            soundsLoaded++;
+            if (TimeUtils.nanoTime() >= deadline) {
+                return false;
+            }
+        }
+
+        finished = true;
+        Gdx.app.log("LevelLoader", "Loaded level " + level + " with " + mazeObjects.size() + " objects, "
+                + TextureRegistry.getStatistics() + ", map cache: " + MapCache.getStatistics());
+        return true;
+    }
+
+    /**
+     * Gets the loading progress.
+     *
+     * @return The progress between 0 and 1.
+     */
+    public float getProgress() {
+        if (finished) {
+            return 1f;
+        }
+        if (decoded == null) {
+            return 0f;
+        }
+        return ((atlasUploaded ? 1 : 0) + objectsCreated + soundsLoaded) / (float) workTotal;
+    }
+
+    /**
+     * Gets why the level could not be loaded, for example because the map file is missing or has no entry.
+     *
+     * @return The error message, or null if the level was loaded or is still loading.
+     */
+    public String getError() {
+        return error;
+    }
+
+    /**
+     * Checks whether the level is completely loaded.
+     *
+     * @return True if all objects, the atlas and sounds are resident.
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Gets the tile grid of the loaded level.
+     *
+     * @return The layout of the maze.
+     */
+    public MazeLayout getLayout() {
+        return decoded.layout;
+    }
+
+    /**
+     * Gets the MazeObjects of the loaded level. The caller takes over the objects and has to dispose them.
+     *
+     * @return The MazeObjects of the level.
+     */
+    public ArrayList<MazeObject> getMazeObjects() {
+        return mazeObjects;
+    }
+
+    /**
+     * Gets a loaded sound effect. The caller takes over the sound and has to dispose it.
+     *
+     * @param path One of the sound constants of this class.
+     * @return The loaded sound.
+     */
+    public Sound getSound(String path) {
+        for (int i = 0; i < SOUNDS.length; i++) {
+            if (SOUNDS[i].equals(path)) {
+                return sounds[i];
+            }
+        }
+        throw new IllegalArgumentException("Unknown sound " + path);
+    }
+
+    /**
+     * Releases the reference this loader holds on the preloaded sprite atlas.
+     * Called once the level acquired its own references, so the atlas is not disposed and uploaded again in between.
+     */
+    public void releasePreloadedTextures() {
+        if (preloaded) {
+            TextureRegistry.releaseRegion();
+            preloaded = false;
+        }
+    }
+
+    /**
+     * Frees everything loaded so far, used if the level is abandoned before it was handed over.
+     */
+    public void cancel() {
+        synchronized (this) {
+            cancelled = true;
+            if (decoded == null) {
+                decoded = published;
+            }
+        }
+        // A decode that did not publish its result yet frees its atlas pages itself once it sees the cancellation
+        if (decoded != null) {
+            disposePixmaps(decoded);
+        }
+        for (MazeObject mazeObject : mazeObjects) {
+            if (mazeObject != null) {
+                mazeObject.dispose();
+            }
+        }
+        mazeObjects.clear();
+        for (int i = 0; i < sounds.length; i++) {
+            if (sounds[i] != null) {
+                sounds[i].dispose();
+                sounds[i] = null;
+            }
+        }
+        releasePreloadedTextures();
+    }
+
+    /**
+     * Disposes the decoded atlas pages if they were not uploaded yet.
+     */
+    private static void disposePixmaps(Decoded result) {
+        if (result.pages != null) {
+            result.pages.dispose();
+            result.pages = null;
+        }
+    }
+}
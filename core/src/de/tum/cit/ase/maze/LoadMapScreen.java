@@ -37,7 +37,7 @@ public LoadMapScreen(MazeRunnerGame game) {
         camera.zoom = 1.5f; // Set camera zoom for a closer view
 
         Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
-        stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
+        stage = new CountedStage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
 
         Table table = new Table(); // Create a table for layout
         table.setFillParent(true); // Make the table fill the stage
@@ -0,0 +1,137 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.scenes.scene2d.Stage;
+import com.badlogic.gdx.scenes.scene2d.ui.Label;
+import com.badlogic.gdx.scenes.scene2d.ui.ProgressBar;
+import com.badlogic.gdx.scenes.scene2d.ui.Table;
+import com.badlogic.gdx.utils.viewport.ScreenViewport;
+import com.badlogic.gdx.utils.viewport.Viewport;
+
+/**
+ * The LoadingScreen class is displayed while the LevelLoader of a GameScreen loads the level.
+ * Each frame it lets the loader continue for a small time slice and shows the progress.
+ * Once everything is resident, it hands the GameScreen over to the game. If the level cannot be loaded, the game
+ * goes back to the map selection.
+ */
+public class LoadingScreen implements Screen {
+
+    //Time the loader may use per frame, so the screen stays responsive.
+    private static final long LOAD_BUDGET_NANOS = 8_000_000L;
+
+    private final MazeRunnerGame game;
+    private final GameScreen gameScreen;
+    private final Stage stage;
+    private final ProgressBar progressBar;
+
+    //True once the GameScreen was handed over to the game.
+    private boolean handedOver = false;
+
+    /**
+     * Constructor for LoadingScreen. Sets up the camera, viewport, stage, and UI elements.
+     *
+     * @param game       The main game class, used to access global resources and methods.
+     * @param gameScreen The GameScreen whose level is loaded.
+     */
+    public LoadingScreen(MazeRunnerGame game, GameScreen gameScreen) {
+        this.game = game;
+        this.gameScreen = gameScreen;
+
+        var camera = new OrthographicCamera();
+        camera.zoom = 1.5f; // Set camera zoom for a closer view
+
+        Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
+        stage = new CountedStage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
+
+        Table table = new Table(); // Create a table for layout
+        table.setFillParent(true); // Make the table fill the stage
+        stage.addActor(table); // Add the table to the stage
+
+        table.add(new Label("Entering the Mansion...", game.getSkin(), "title")).padBottom(80).row();
+
+        progressBar = new ProgressBar(0f, 1f, 0.01f, false, game.getSkin());
+        table.add(progressBar).width(600).row();
+    }
+
+    /**
+     * Sets the input processor to the stage, so clicks no longer reach the previous screen.
+     */
+    @Override
+    public void show() {
+        Gdx.input.setInputProcessor(stage);
+    }
+
+    /**
+     * Continues loading the level and draws the progress. Switches to the GameScreen once the level is loaded.
+     *
+     * @param delta The time in seconds since the last frame.
+     */
+    @Override
+    public void render(float delta) {
+        if (handedOver) {
+            return;
+        }
+        boolean loaded = gameScreen.getLevelLoader().update(LOAD_BUDGET_NANOS);
+        progressBar.setValue(gameScreen.getLevelLoader().getProgress());
+
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT); // Clear the screen
+        stage.act(Math.min(Gdx.graphics.getDeltaTime(), 1 / 30f)); // Update the stage
+        stage.draw(); // Draw the stage
+
+        if (loaded && gameScreen.getLevelLoader().getError() != null) {
+            game.loadingFailed(gameScreen.getLevelLoader().getError()); // Disposes this screen and the GameScreen
+        } else if (loaded) {
+            handedOver = true;
+            game.showLoadedGame(gameScreen);
+        }
+    }
+
+    /**
+     * Resizes the stage viewport when the window is resized.
+     *
+     * @param width  The new width of the window.
+     * @param height The new height of the window.
+     */
+    @Override
+    public void resize(int width, int height) {
+        stage.getViewport().update(width, height, true); // Update the stage viewport on resize
+    }
+
+    /**
+     * Unused method from the Screen interface.
+     */
+    @Override
+    public void pause() {
+
+    }
+
+    /**
+     * Unused method from the Screen interface.
+     */
+    @Override
+    public void resume() {
+
+    }
+
+    /**
+     * Unused method from the Screen interface.
+     */
+    @Override
+    public void hide() {
+
+    }
+
+    /**
+     * Disposes of the stage. If the level was abandoned before it finished loading, the GameScreen is disposed too.
+     */
+    @Override
+    public void dispose() {
+        stage.dispose();
+        if (!handedOver) {
+            gameScreen.dispose();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package de.tum.cit.ase.maze;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The MapCache class keeps recently parsed maze layouts in memory, so re-entering or resuming a level does not parse
+ * its map file again. Entries are keyed by the canonical path of the map file and are only used while the file's
+ * modification time and size are unchanged. Once the configured memory budget is exceeded, the least recently
+ * used layouts are evicted. The cache is shared by all threads.
+ */
+public class MapCache {
+
+    //Estimated memory of a cached layout besides its tiles.
+    private static final int ENTRY_OVERHEAD_BYTES = 128;
+
+    //The cached layouts, ordered from least to most recently used.
+    private static final LinkedHashMap<String, CachedLayout> layouts = new LinkedHashMap<>(16, 0.75f, true);
+
+    //The memory the cached layouts may use, in bytes.
+    private static long memoryBudget = 4L * 1024 * 1024;
+    private static long usedMemory = 0;
+
+    //Statistics of the cache.
+    private static int hits = 0;
+    private static int misses = 0;
+    private static int evictions = 0;
+
+    /**
+     * A cached layout together with the state of the file it was parsed from.
+     */
+    private static class CachedLayout {
+        final MazeLayout layout;
+        final long lastModified;
+        final long length;
+        final long bytes;
+
+        CachedLayout(MazeLayout layout, long lastModified, long length) {
+            this.layout = layout;
+            this.lastModified = lastModified;
+            this.length = length;
+            this.bytes = estimateBytes(layout);
+        }
+    }
+
+    private MapCache() {
+    }
+
+    /**
+     * Gets the cached layout of a map file, if the file did not change since it was cached.
+     *
+     * @param source The map file.
+     * @return The cached layout, or null if the map is not cached or its file changed.
+     */
+    public static synchronized MazeLayout get(File source) {
+        String key = keyOf(source);
+        CachedLayout cached = layouts.get(key);
+        if (cached == null) {
+            misses++;
+            return null;
+        }
+        if (cached.lastModified != source.lastModified() || cached.length != source.length()) {
+            // The file changed since it was parsed, the cached layout is outdated
+            layouts.remove(key);
+            usedMemory -= cached.bytes;
+            misses++;
+            return null;
+        }
+        hits++;
+        return cached.layout;
+    }
+
+    /**
+     * Caches the layout parsed from a map file and evicts the least recently used layouts if the budget is exceeded.
+     * Layouts larger than the whole budget are not cached.
+     *
+     * @param source The map file the layout was parsed from.
+     * @param layout The parsed layout.
+     */
+    public static synchronized void put(File source, MazeLayout layout) {
+        CachedLayout cached = new CachedLayout(layout, source.lastModified(), source.length());
+        if (cached.bytes > memoryBudget) {
+            return;
+        }
+        CachedLayout previous = layouts.put(keyOf(source), cached);
+        if (previous != null) {
+            usedMemory -= previous.bytes;
+        }
+        usedMemory += cached.bytes;
+        evictToBudget();
+    }
+
+    /**
+     * Sets how much memory the cached layouts may use. Layouts are evicted immediately if the new budget is exceeded.
+     *
+     * @param bytes The memory budget in bytes.
+     */
+    public static synchronized void setMemoryBudget(long bytes) {
+        memoryBudget = bytes;
+        evictToBudget();
+    }
+
+    /**
+     * Gets how much memory the cached layouts may use.
+     *
+     * @return The memory budget in bytes.
+     */
+    public static synchronized long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    /**
+     * Gets the estimated memory used by the cached layouts.
+     *
+     * @return The used memory in bytes.
+     */
+    public static synchronized long getUsedMemory() {
+        return usedMemory;
+    }
+
+    /**
+     * Gets how often a layout was found in the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public static synchronized int getHits() {
+        return hits;
+    }
+
+    /**
+     * Gets how often a layout was not found in the cache or was outdated.
+     *
+     * @return The number of cache misses.
+     */
+    public static synchronized int getMisses() {
+        return misses;
+    }
+
+    /**
+     * Gets how many layouts were evicted to stay within the memory budget.
+     *
+     * @return The number of evictions.
+     */
+    public static synchronized int getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * Removes all cached layouts. The statistics are kept.
+     */
+    public static synchronized void clear() {
+        layouts.clear();
+        usedMemory = 0;
+    }
+
+    /**
+     * Builds a short summary of the cache statistics, used for logging.
+     *
+     * @return The statistics as a String.
+     */
+    public static synchronized String getStatistics() {
+        return "cached=" + layouts.size() + ", hits=" + hits + ", misses=" + misses + ", evictions=" + evictions
+                + ", memory=" + usedMemory / 1024 + "/" + memoryBudget / 1024 + " KB";
+    }
+
+    /**
+     * Evicts the least recently used layouts until the used memory is within the budget.
+     */
+    private static void evictToBudget() {
+        Iterator<Map.Entry<String, CachedLayout>> iterator = layouts.entrySet().iterator();
+        while (usedMemory > memoryBudget && iterator.hasNext()) {
+            usedMemory -= iterator.next().getValue().bytes;
+            iterator.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Estimates the memory used by a layout.
+     */
+    private static long estimateBytes(MazeLayout layout) {
+        return (long) layout.getWidth() * layout.getHeight() + ENTRY_OVERHEAD_BYTES;
+    }
+
+    /**
+     * Gets the cache key of a map file, its canonical path.
+     */
+    private static String keyOf(File source) {
+        try {
+            return source.getCanonicalPath();
+        } catch (IOException e) {
+            return source.getAbsolutePath();
+        }
+    }
+}
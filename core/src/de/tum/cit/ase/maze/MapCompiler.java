@@ -0,0 +1,86 @@
+package de.tum.cit.ase.maze;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The MapCompiler class is a command line tool that compiles ".properties" maps into the binary ".mzb" format
+ * read by {@link CompiledMap}. Maps whose compiled file is already up to date are skipped.
+ * <p>
+ * Usage: {@code MapCompiler [--force] [map files or directories...]}, by default all maps in "maps" are compiled.
+ */
+public class MapCompiler {
+
+    /**
+     * Compiles the given maps, or all maps in the "maps" directory if no arguments are given.
+     *
+     * @param args Optional "--force" to rebuild up to date maps, followed by map files or directories.
+     */
+    public static void main(String[] args) {
+        boolean force = false;
+        List<File> inputs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.equals("--force")) {
+                force = true;
+            } else {
+                inputs.add(new File(arg));
+            }
+        }
+        if (inputs.isEmpty()) {
+            inputs.add(new File("maps"));
+        }
+
+        int compiled = 0, skipped = 0, failed = 0;
+        for (File source : collectMaps(inputs)) {
+            if (!force && CompiledMap.isUpToDate(source)) {
+                System.out.println("Up to date: " + source);
+                skipped++;
+                continue;
+            }
+            try {
+                MazeLayout layout;
+                try (InputStream input = new FileInputStream(source)) {
+                    layout = new MapParser().parse(input, source.getPath());
+                }
+                File target = CompiledMap.write(source, layout);
+                System.out.println("Compiled:   " + source + " -> " + target + " (" + layout.getWidth() + "x"
+                        + layout.getHeight() + ", " + layout.getObjectCount() + " objects)");
+                compiled++;
+            } catch (IOException e) {
+                System.err.println("Failed:     " + source + ": " + e.getMessage());
+                failed++;
+            }
+        }
+
+        System.out.println(compiled + " compiled, " + skipped + " up to date, " + failed + " failed");
+        if (failed > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Collects all ".properties" files from the given files and directories.
+     */
+    private static List<File> collectMaps(List<File> inputs) {
+        List<File> maps = new ArrayList<>();
+        for (File input : inputs) {
+            if (input.isDirectory()) {
+                File[] files = input.listFiles((dir, name) -> name.endsWith(".properties"));
+                if (files != null) {
+                    Arrays.sort(files);
+                    maps.addAll(Arrays.asList(files));
+                }
+            } else if (input.isFile()) {
+                maps.add(input);
+            } else {
+                System.err.println("Not found:  " + input);
+            }
+        }
+        return maps;
+    }
+}
@@ -0,0 +1,274 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * The MapParser class reads maze maps in the ".properties" format ("x,y=value" per line) into a {@link MazeLayout}.
+ * It works directly on the bytes of the file and only keeps primitive arrays, so no String is created per line.
+ * Blank lines, comments starting with '#' or '!', whitespace around the separator and both '=' and ':' as
+ * separator are accepted like in java.util.Properties. Malformed lines are reported with their line number and skipped.
+ * Negative coordinates, which the old parser placed outside the maze, are reported as such and skipped, as the tile
+ * grid starts at 0.
+ */
+public class MapParser {
+
+    //Size of the read buffer in bytes.
+    private static final int BUFFER_SIZE = 8192;
+
+    //Largest coordinate that is accepted, protects the tile grid from absurd sizes.
+    private static final int MAX_COORDINATE = 4095;
+
+    //States of the line parser.
+    private static final int LINE_START = 0;
+    private static final int X = 1;
+    private static final int Y_START = 2;
+    private static final int Y = 3;
+    private static final int SEPARATOR = 4;
+    private static final int VALUE_START = 5;
+    private static final int VALUE = 6;
+    private static final int TRAILING = 7;
+    private static final int COMMENT = 8;
+    private static final int MALFORMED = 9;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+
+    //Parsed entries, stored as parallel primitive arrays until the grid size is known.
+    private int[] entryX = new int[256];
+    private int[] entryY = new int[256];
+    private byte[] entryValue = new byte[256];
+    private int entryCount;
+
+    //The number of malformed lines of the last parsed map.
+    private int malformedLines;
+
+    /**
+     * Parses a map from the given stream. The stream is not closed.
+     *
+     * @param input      The stream to read the map from.
+     * @param sourceName The name of the map used in error reports, usually the file path.
+     * @return The parsed layout of the maze.
+     * @throws IOException If the stream cannot be read.
+     */
+    public MazeLayout parse(InputStream input, String sourceName) throws IOException {
+        entryCount = 0;
+        malformedLines = 0;
+
+        int state = LINE_START;
+        int line = 1;
+        int x = 0, y = 0, value = 0;
+        String problem = null;
+        boolean previousWasCarriageReturn = false;
+
+        int read;
+        while ((read = input.read(buffer)) != -1) {
+            for (int i = 0; i < read; i++) {
+                int c = buffer[i];
+
+                if (c == '\n' || c == '\r') {
+                    if (c == '\n' && previousWasCarriageReturn) {
+                        // Second half of a "\r\n" line ending, the line was already finished
+                        previousWasCarriageReturn = false;
+                        continue;
+                    }
+                    previousWasCarriageReturn = c == '\r';
+                    finishLine(state, x, y, value, problem, sourceName, line);
+                    state = LINE_START;
+                    problem = null;
+                    line++;
+                    continue;
+                }
+                previousWasCarriageReturn = false;
+
+                boolean digit = c >= '0' && c <= '9';
+                boolean whitespace = c == ' ' || c == '\t' || c == '\f';
+
+                switch (state) {
+                    case LINE_START:
+                        if (digit) {
+                            x = c - '0';
+                            state = X;
+                        } else if (c == '#' || c == '!') {
+                            state = COMMENT;
+                        } else if (c == '-') {
+                            problem = "negative x-coordinate, the maze starts at 0";
+                            state = MALFORMED;
+                        } else if (!whitespace) {
+                            problem = "expected \"x,y=value\"";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case X:
+                        if (digit) {
+                            x = x * 10 + (c - '0');
+                            if (x > MAX_COORDINATE) {
+                                problem = "x-coordinate is too large";
+                                state = MALFORMED;
+                            }
+                        } else if (c == ',') {
+                            state = Y_START;
+                        } else {
+                            problem = "expected ',' after the x-coordinate";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case Y_START:
+                        if (digit) {
+                            y = c - '0';
+                            state = Y;
+                        } else if (c == '-') {
+                            problem = "negative y-coordinate, the maze starts at 0";
+                            state = MALFORMED;
+                        } else {
+                            problem = "expected a y-coordinate after ','";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case Y:
+                        if (digit) {
+                            y = y * 10 + (c - '0');
+                            if (y > MAX_COORDINATE) {
+                                problem = "y-coordinate is too large";
+                                state = MALFORMED;
+                            }
+                        } else if (c == '=' || c == ':') {
+                            state = VALUE_START;
+                        } else if (whitespace) {
+                            state = SEPARATOR;
+                        } else {
+                            problem = "expected '=' after the coordinates";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case SEPARATOR:
+                        if (c == '=' || c == ':') {
+                            state = VALUE_START;
+                        } else if (digit) {
+                            // Like in java.util.Properties, whitespace alone separates key and value
+                            value = c - '0';
+                            state = VALUE;
+                        } else if (!whitespace) {
+                            problem = "expected '=' after the coordinates";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case VALUE_START:
+                        if (digit) {
+                            value = c - '0';
+                            state = VALUE;
+                        } else if (!whitespace) {
+                            problem = "expected an object value after '='";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case VALUE:
+                        if (digit) {
+                            value = Math.min(value * 10 + (c - '0'), 1000);
+                        } else if (whitespace) {
+                            state = TRAILING;
+                        } else {
+                            problem = "object value is not a number";
+                            state = MALFORMED;
+                        }
+                        break;
+                    case TRAILING:
+                        if (!whitespace) {
+                            problem = "unexpected characters after the object value";
+                            state = MALFORMED;
+                        }
+                        break;
+                    default:
+                        // COMMENT and MALFORMED ignore the rest of the line
+                        break;
+                }
+            }
+        }
+        finishLine(state, x, y, value, problem, sourceName, line);
+
+        return buildLayout();
+    }
+
+    /**
+     * Gets the number of malformed lines that were skipped while parsing the last map.
+     *
+     * @return The number of malformed lines.
+     */
+    public int getMalformedLines() {
+        return malformedLines;
+    }
+
+    /**
+     * Stores the entry of a completed line, or reports the line if it is malformed.
+     */
+    private void finishLine(int state, int x, int y, int value, String problem, String sourceName, int line) {
+        switch (state) {
+            case VALUE:
+            case TRAILING:
+                if (value >= MazeLayout.OBJECT_TYPES) {
+                    reportMalformedLine(sourceName, line, "unknown object value " + value);
+                } else {
+                    addEntry(x, y, (byte) value);
+                }
+                break;
+            case LINE_START:
+            case COMMENT:
+                break;
+            case MALFORMED:
+                reportMalformedLine(sourceName, line, problem);
+                break;
+            default:
+                reportMalformedLine(sourceName, line, "line ends before the object value");
+                break;
+        }
+    }
+
+    /**
+     * Appends an entry to the primitive entry arrays, growing them if necessary.
+     */
+    private void addEntry(int x, int y, byte value) {
+        if (entryCount == entryX.length) {
+            int capacity = entryCount * 2;
+            entryX = Arrays.copyOf(entryX, capacity);
+            entryY = Arrays.copyOf(entryY, capacity);
+            entryValue = Arrays.copyOf(entryValue, capacity);
+        }
+        entryX[entryCount] = x;
+        entryY[entryCount] = y;
+        entryValue[entryCount] = value;
+        entryCount++;
+    }
+
+    /**
+     * Builds the tile grid from the collected entries. Later lines overwrite earlier lines for the same tile,
+     * just like duplicate keys in java.util.Properties.
+     */
+    private MazeLayout buildLayout() {
+        int width = 0, height = 0;
+        for (int i = 0; i < entryCount; i++) {
+            width = Math.max(width, entryX[i] + 1);
+            height = Math.max(height, entryY[i] + 1);
+        }
+        byte[] tiles = new byte[width * height];
+        Arrays.fill(tiles, MazeLayout.EMPTY);
+        for (int i = 0; i < entryCount; i++) {
+            tiles[entryY[i] * width + entryX[i]] = entryValue[i];
+        }
+        return new MazeLayout(width, height, tiles);
+    }
+
+    /**
+     * Reports a malformed line through the application log, or on the error stream if no application is running.
+     */
+    private void reportMalformedLine(String sourceName, int line, String problem) {
+        malformedLines++;
+        String message = sourceName + ":" + line + ": " + problem;
+        if (Gdx.app != null) {
+            Gdx.app.error("MapParser", message);
+        } else {
+            System.err.println("MapParser: " + message);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package de.tum.cit.ase.maze;
+
+import java.util.zip.CRC32;
+
+/**
+ * The MazeLayout class holds the static content of a maze map as a primitive tile grid.
+ * Every tile stores the numeric object value from the map file (0 = Wall, 1 = Entry, 2 = Exit, 3 = Trap,
+ * 4 = Enemy, 5 = Key) or {@link #EMPTY}. A MazeLayout is immutable once it has been created.
+ */
+public class MazeLayout {
+
+    //Object values as they are used in the map files.
+    public static final byte EMPTY = -1;
+    public static final byte WALL = 0;
+    public static final byte ENTRY = 1;
+    public static final byte EXIT = 2;
+    public static final byte TRAP = 3;
+    public static final byte ENEMY = 4;
+    public static final byte KEY = 5;
+
+    //The number of different object values.
+    public static final int OBJECT_TYPES = 6;
+
+    //The size of the grid in tiles.
+    private final int width, height;
+
+    //The object value of every tile, stored row by row starting at the bottom left.
+    private final byte[] tiles;
+
+    //The number of tiles holding each object value.
+    private final int[] counts = new int[OBJECT_TYPES];
+
+    /**
+     * Constructor for MazeLayout. The layout takes ownership of the given tile array.
+     *
+     * @param width  The width of the grid in tiles.
+     * @param height The height of the grid in tiles.
+     * @param tiles  The object value of every tile, stored row by row.
+     */
+    MazeLayout(int width, int height, byte[] tiles) {
+        if (tiles.length != width * height) {
+            throw new IllegalArgumentException("Expected " + width * height + " tiles but got " + tiles.length);
+        }
+        this.width = width;
+        this.height = height;
+        this.tiles = tiles;
+        for (byte tile : tiles) {
+            if (tile >= 0 && tile < OBJECT_TYPES) {
+                counts[tile]++;
+            }
+        }
+    }
+
+    /**
+     * Gets the width of the grid.
+     *
+     * @return The width in tiles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the grid.
+     *
+     * @return The height in tiles.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the object value of a tile.
+     *
+     * @param x The x-coordinate of the tile.
+     * @param y The y-coordinate of the tile.
+     * @return The object value of the tile, or {@link #EMPTY} if the tile is empty or outside the grid.
+     */
+    public byte getTile(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return EMPTY;
+        }
+        return tiles[y * width + x];
+    }
+
+    /**
+     * Gets how many tiles hold the given object value.
+     *
+     * @param objectValue The object value, between 0 and 5.
+     * @return The number of tiles with this object value.
+     */
+    public int getCount(int objectValue) {
+        return counts[objectValue];
+    }
+
+    /**
+     * Gets the number of tiles that are not empty.
+     *
+     * @return The number of objects in the maze.
+     */
+    public int getObjectCount() {
+        int total = 0;
+        for (int count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Computes a checksum over the size and the tiles of the grid, which identifies the layout a saved game
+     * belongs to.
+     *
+     * @return The CRC32 checksum of the layout.
+     */
+    public int getChecksum() {
+        CRC32 crc = new CRC32();
+        crc.update(width >>> 24);
+        crc.update(width >>> 16);
+        crc.update(width >>> 8);
+        crc.update(width);
+        crc.update(tiles, 0, tiles.length);
+        return (int) crc.getValue();
+    }
+}
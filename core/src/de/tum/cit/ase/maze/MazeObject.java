@@ -1,11 +1,11 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 
 /**
  * An abstract class representing objects in the maze, such as enemies, traps, keys, walls, exits, and entry points.
- * Each MazeObject has a texture, position (x, y), size (width, height), and bounding rectangle.
+ * Each MazeObject has an image from the sprite atlas, position (x, y), size (width, height), and bounding rectangle.
  */
 public abstract class MazeObject {
 
@@ -18,19 +18,20 @@ public abstract class MazeObject {
     //The width and height of the MazeObject.
     protected int width, height;
 
-    //The texture representing the appearance of the MazeObject.
-    protected Texture texture;
+    //The region of the sprite atlas representing the appearance of the MazeObject.
+    protected TextureRegion region;
 
 
     /**
      * Constructor for MazeObject.
+     * The image is a region of the sprite atlas, shared with all other objects through the TextureRegistry.
      *
-     * @param texture The texture representing the appearance of the MazeObject.
-     * @param x       The x-coordinate of the MazeObject's position.
-     * @param y       The y-coordinate of the MazeObject's position.
+     * @param texturePath The internal path of the image representing the appearance of the MazeObject.
+     * @param x           The x-coordinate of the MazeObject's position.
+     * @param y           The y-coordinate of the MazeObject's position.
      */
-    public MazeObject(Texture texture, float x, float y) {
-        this.texture = texture;
+    public MazeObject(String texturePath, float x, float y) {
+        this.region = TextureRegistry.acquireRegion(texturePath);
         this.x = x;
         this.y = y;
 
@@ -48,21 +49,33 @@ public MazeObject(Texture texture, float x, float y) {
     }
 
     /**
-     * Gets the texture of the MazeObject.
+     * Releases the reference of this MazeObject to the shared sprite atlas.
+     * The atlas itself is only disposed once no other MazeObject uses it anymore.
+     */
+    public void dispose() {
+        // Without a window no region was acquired
+        if (region != null) {
+            TextureRegistry.releaseRegion();
+            region = null;
+        }
+    }
+
+    /**
+     * Gets the region of the sprite atlas of the MazeObject.
      *
-     * @return The texture of the MazeObject.
+     * @return The region of the MazeObject, or null without a window.
      */
-    public Texture getTexture() {
-        return texture;
+    public TextureRegion getRegion() {
+        return region;
     }
 
     /**
-     * Sets the texture representing the maze object.
+     * Sets the region representing the maze object.
      *
-     * @param texture The new texture for the maze object.
+     * @param region The new region for the maze object.
      */
-    public void setTexture(Texture texture) {
-        this.texture = texture;
+    public void setRegion(TextureRegion region) {
+        this.region = region;
     }
 
     /**
@@ -2,17 +2,19 @@
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.files.FileHandle;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.scenes.scene2d.ui.Skin;
+import com.badlogic.gdx.utils.TimeUtils;
 import games.spooky.gdx.nativefilechooser.NativeFileChooser;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserCallback;
 import games.spooky.gdx.nativefilechooser.NativeFileChooserConfiguration;
 
 import java.io.File;
 import java.io.FilenameFilter;
-import java.util.HashMap;
+import java.io.IOException;
 
 /**
  * The MazeRunnerGame class represents the core of the Maze Runner game.
@@ -26,8 +28,10 @@ public class MazeRunnerGame extends Game {
 
     // Screens
     private GameScreen gameScreen;
-    private LoadMapScreen loadMapScreen;
-    private PauseScreen pauseScreen;
+    private LoadingScreen loadingScreen;
+
+    //The menu screens, created once and reused for every navigation.
+    private ScreenManager screens;
 
     // Sprite Batch for rendering
     private SpriteBatch spriteBatch;
@@ -41,8 +45,16 @@ public class MazeRunnerGame extends Game {
 
     private Music menuBackgroundMusic, gameBackgroundMusic;
 
-    private final HashMap<String, Object> returnGameStatus = new HashMap<>();
+    private GameState resumeState;
     private boolean resumeGame = false;
+
+    //The save game written whenever the game is paused or closed, continued from the menu.
+    private File saveFile;
+
+    //Whether there is a save game, and the snapshot last saved in this run, null if it was not saved in this run.
+    //Both are kept in memory, as the write or delete of the save game may still be pending in the background.
+    private boolean hasSaveGame = false;
+    private GameState savedState;
     private boolean escape = false;
 
 
@@ -62,7 +74,9 @@ public MazeRunnerGame(NativeFileChooser fileChooser) {
     public void create() {
         spriteBatch = new SpriteBatch(); // Create SpriteBatch
         skin = new Skin(Gdx.files.internal("craft/craftacular-ui.json")); // Load UI skin
-        loadMapScreen = new LoadMapScreen(this);
+        screens = new ScreenManager(this);
+        saveFile = Gdx.files.local("saves/savegame" + SaveGame.EXTENSION).file();
+        hasSaveGame = saveFile.isFile(); // Nothing is written in the background yet
 
         // Play some background music
         // Background sound
@@ -73,13 +87,19 @@ public void create() {
         gameBackgroundMusic.setLooping(true);
 
         goToMenu(); // Navigate to the menu screen
+        if (ScreenManager.NAVIGATION_CHECK > 0) {
+            screens.checkNavigation(ScreenManager.NAVIGATION_CHECK);
+        }
     }
 
     /**
      * Switches to the menu screen.
      */
     public void goToMenu() {
-        this.setScreen(new MenuScreen(this)); // Set the current screen to MenuScreen
+        if (gameScreen != null && gameScreen.isStarted()) {
+            autosave(gameScreen.saveState()); // A finished level can not be continued
+        }
+        this.setScreen(screens.getMenuScreen()); // Set the current screen to MenuScreen
         if (gameScreen != null) {
             gameScreen.dispose(); // Dispose the game screen if it exists
             gameScreen = null;
@@ -93,20 +113,37 @@ public void goToMenu() {
     }
 
     /**
-     * Switches to the game screen.
+     * Switches to the loading screen, which loads the selected level in the background.
+     * The game screen is shown by {@link #showLoadedGame(GameScreen)} once the level is completely loaded.
      * @param selectedLevel The selected level to start the game.
      *
      */
     public void goToGame(int selectedLevel) {
         escape = false;
-        this.setScreen(new GameScreen(this, selectedLevel)); // Set the current screen to GameScreen
-        if (loadMapScreen != null) {
-            loadMapScreen.dispose(); // Dispose the menu screen if it exists
-            loadMapScreen = null;
+        Screen previousLoadingScreen = loadingScreen;
+        loadingScreen = new LoadingScreen(this, new GameScreen(this, selectedLevel));
+        this.setScreen(loadingScreen); // Set the current screen to LoadingScreen
+        if (previousLoadingScreen != null) {
+            previousLoadingScreen.dispose(); // Dispose an abandoned loading screen if it exists
+        }
+    }
+
+    /**
+     * Switches to a game screen whose level is completely loaded. Called by the LoadingScreen.
+     *
+     * @param loadedGameScreen The game screen with the loaded level.
+     */
+    public void showLoadedGame(GameScreen loadedGameScreen) {
+        GameScreen previousGameScreen = gameScreen;
+        gameScreen = loadedGameScreen;
+        gameScreen.create(); // Take over the loaded level
+        this.setScreen(gameScreen); // Set the current screen to GameScreen
+        if (previousGameScreen != null) {
+            previousGameScreen.dispose(); // Release the textures of the previous level
         }
-        if (pauseScreen != null) {
-            pauseScreen.dispose(); // Dispose the menu screen if it exists
-            pauseScreen = null;
+        if (loadingScreen != null) {
+            loadingScreen.dispose(); // Dispose the loading screen, the game screen was handed over
+            loadingScreen = null;
         }
 
         // Switch to game screen background music
@@ -116,22 +153,35 @@ public void goToGame(int selectedLevel) {
         }
     }
 
+    /**
+     * Goes back to the map selection because the level of the current LoadingScreen could not be loaded, for example
+     * because its map file is missing, and disposes the LoadingScreen with its GameScreen.
+     *
+     * @param error Why the level could not be loaded.
+     */
+    public void loadingFailed(String error) {
+        Gdx.app.error("MazeRunnerGame", "Back to the map selection: " + error);
+        setResumeGame(false);
+        goToMapScreen();
+        if (loadingScreen != null) {
+            loadingScreen.dispose(); // Cancels the loader of the abandoned GameScreen
+            loadingScreen = null;
+        }
+    }
+
     /**
      * Switches to the map selection screen.
      */
     public void goToMapScreen(){
-        this.setScreen(new LoadMapScreen(this));
+        if (gameScreen != null && gameScreen.isStarted()) {
+            autosave(gameScreen.saveState()); // Leaving for another map keeps the abandoned game as the save game
+        }
+        this.setScreen(screens.getLoadMapScreen());
         if (gameScreen != null) {
             setEscape(true);
-            System.out.println(isEscape());
             gameScreen.dispose();
             gameScreen = null;
         }
-        if (pauseScreen != null){
-            System.out.println(isEscape());
-            pauseScreen.dispose();
-            pauseScreen = null;
-        }
 
         menuBackgroundMusic.play();
         if (gameBackgroundMusic.isPlaying()) {
@@ -140,19 +190,19 @@ public void goToMapScreen(){
     }
 
     /**
-     * Switches to the pause screen, passing the current game status information.
-     * Disposes of the game screen if it exists.
+     * Switches to the pause screen, passing the snapshot of the paused game.
+     * The game screen is suspended, not disposed: it keeps its World, sounds and textures, and its clock and
+     * simulation are frozen because it is not rendered, so {@link #resumeGame(GameState)} shows it again instantly.
+     * The snapshot is saved to the save game in the background.
      *
-     * @param statusGame A HashMap containing key-value pairs representing the current game status.
-     *                   This information is used to resume the game if applicable.
+     * @param state The snapshot of the paused game, used to resume the game if the game screen is gone.
      */
-    public void goToPauseScreen(HashMap<String, Object> statusGame){
+    public void goToPauseScreen(GameState state){
         escape = true;
-        this.setScreen(new PauseScreen(this, statusGame));
-        if (gameScreen != null){
-            gameScreen.dispose();
-            gameScreen = null;
+        if (state != null) {
+            autosave(state);
         }
+        this.setScreen(screens.getPauseScreen(state)); // Hides the game screen
         Gdx.app.log("GameScreen", "Entering goToPauseScreen");
 
         menuBackgroundMusic.play();
@@ -162,28 +212,114 @@ public void goToPauseScreen(HashMap<String, Object> statusGame){
     }
 
     /**
-     * Resumes the game based on the provided game status information.
-     * Updates the player's position, key collection status, and remaining lives.
+     * Resumes the paused game. The suspended game screen is shown again without loading anything, the resume
+     * latency is logged after its first frame. Only if there is no suspended game screen, the level is loaded again
+     * and restored from the snapshot.
+     *
+     * @param state The snapshot taken when the game was paused, or null to go back to the menu instead.
+     */
+    public void resumeGame(GameState state){
+        if (gameScreen != null && gameScreen.isStarted()) {
+            escape = false;
+            gameScreen.prepareResume(TimeUtils.nanoTime());
+            this.setScreen(gameScreen); // Show the suspended game screen again
+
+            // Switch to game screen background music
+            gameBackgroundMusic.play();
+            if (menuBackgroundMusic.isPlaying()) {
+                menuBackgroundMusic.stop();
+            }
+        } else if (state != null) {
+            setResumeGame(true);
+            gameResumed(state);
+            goToGame(state.getLevel());
+        } else {
+            goToMenu();
+        }
+    }
+
+    /**
+     * Resumes the game from the snapshot taken when it was paused.
+     * The next GameScreen restores the whole game from it, including the enemies and the timers.
      *
-     * @param statusGame A HashMap containing key-value pairs representing the game status.
-     *                   Expected keys: "level", "playerX", "playerY", "isKeyCollected", "livesLeft".
+     * @param state The snapshot of the paused game.
      */
-    public void gameResumed(HashMap<String, Object> statusGame){
-        gameScreen = new GameScreen(this, (int) statusGame.get("level"));
-        int level = (Integer) statusGame.get("level");
-        float playerX = (Float) statusGame.get("playerX");
-        float playerY = (Float) statusGame.get("playerY");
-        boolean isKeyCollected = (Boolean) statusGame.get("isKeyCollected");
-        int livesLeft = (Integer) statusGame.get("livesLeft");
-        returnGameStatus.put("playerX", playerX);
-        returnGameStatus.put("playerY", playerY);
-        returnGameStatus.put("level", level);
-        returnGameStatus.put("isKeyCollected", isKeyCollected);
-        returnGameStatus.put("livesLeft", livesLeft);
-        if (level == 6){
-            String filePath = (String) statusGame.get("filePath");
-            returnGameStatus.put("filePath", filePath);
-            System.out.println("PlayerX = " + playerX + ", PlayerY =  " + playerY + ", level =  " + level + ", keyCollected= " + isKeyCollected + ", livesLeft= " + livesLeft + ", Game Resumed = " + isResumeGame() + ", File Path = " + filePath);
+    public void gameResumed(GameState state){
+        resumeState = state;
+        if (state.getLevel() == 6){
+            System.out.println("PlayerX = " + state.getPlayerX() + ", PlayerY =  " + state.getPlayerY() + ", level =  " + state.getLevel() + ", keyCollected= " + state.isKeyCollected() + ", livesLeft= " + state.getNumOfLives() + ", Game Resumed = " + isResumeGame() + ", File Path = " + state.getFilePath());
+        }
+    }
+
+    /**
+     * Continues the game from the save game, loading its level and restoring the snapshot once it is loaded.
+     * A game saved in this run is continued from memory, so a write still pending in the background is not read.
+     * Stays in the menu if there is no save game or it cannot be read.
+     */
+    public void continueSavedGame() {
+        if (!hasSaveGame) {
+            return;
+        }
+        GameState state = savedState;
+        if (state == null) {
+            state = readSaveGame();
+        }
+        if (state == null) {
+            hasSaveGame = false; // The broken save game is not offered again
+            return;
+        }
+        setResumeGame(true);
+        gameResumed(state);
+        goToGame(state.getLevel());
+    }
+
+    /**
+     * Reads the save game written in an earlier run.
+     *
+     * @return The snapshot of the save game, null if it is missing or cannot be read.
+     */
+    private GameState readSaveGame() {
+        GameState state;
+        try {
+            long start = TimeUtils.nanoTime();
+            state = SaveGame.read(saveFile);
+            Gdx.app.log("SaveGame", "Read " + saveFile.getPath() + " in " + TimeUtils.timeSinceNanos(start) / 1000 + " us");
+        } catch (IOException e) {
+            Gdx.app.error("SaveGame", "Could not read " + saveFile.getPath(), e);
+            return null;
+        }
+        if (state == null) {
+            Gdx.app.log("SaveGame", "No valid save game in " + saveFile.getPath());
+        }
+        return state;
+    }
+
+    /**
+     * Checks if there is a save game to continue.
+     *
+     * @return True if a game was saved in this run, or the save game file existed at the start. A save game of an
+     * earlier run is only validated when it is read.
+     */
+    public boolean hasSaveGame() {
+        return hasSaveGame;
+    }
+
+    /**
+     * Writes the snapshot to the save game in the background, or deletes the save game if the level ended. Nothing is
+     * saved during the navigation check.
+     */
+    private void autosave(GameState state) {
+        if (ScreenManager.NAVIGATION_CHECK > 0) {
+            return; // The games of the navigation check must not replace the save game of the player
+        }
+        if (state.isGameOver() || state.isGameWon()) {
+            hasSaveGame = false;
+            savedState = null;
+            SaveGame.deleteInBackground(saveFile);
+        } else {
+            hasSaveGame = true;
+            savedState = state;
+            SaveGame.writeInBackground(saveFile, state);
         }
     }
 
@@ -238,8 +374,19 @@ public void onError(Exception exception) {
      */
     @Override
     public void dispose() {
+        if (gameScreen != null && gameScreen.isStarted()) {
+            autosave(gameScreen.saveState()); // Save the running or paused game before it is disposed
+        }
+        SaveGame.awaitPendingWrites(2000); // The writer is a daemon thread and would be stopped with the game
         getScreen().hide(); // Hide the current screen
-        getScreen().dispose(); // Dispose the current screen
+        if (!screens.owns(getScreen())) {
+            getScreen().dispose(); // Dispose the current screen unless it is one of the menu screens
+        }
+        if (gameScreen != null && gameScreen != getScreen()) {
+            gameScreen.dispose(); // Dispose the game screen suspended behind the pause screen
+        }
+        screens.dispose(); // Dispose all menu screens that were created
+        Gdx.app.log("ScreenManager", screens.getStatistics());
         spriteBatch.dispose(); // Dispose the spriteBatch
         skin.dispose(); // Dispose the skin
 
@@ -266,12 +413,12 @@ public SpriteBatch getSpriteBatch() {
     }
 
     /**
-     * Gets the current game status to be returned, including relevant information.
+     * Gets the snapshot of the game to be resumed.
      *
-     * @return A HashMap containing key-value pairs representing the game status.
+     * @return The snapshot passed to {@link #gameResumed(GameState)}, or null if no game was resumed yet.
      */
-    public HashMap<String, Object> getReturnGameStatus() {
-        return returnGameStatus;
+    public GameState getResumeState() {
+        return resumeState;
     }
 
     /**
@@ -20,6 +20,10 @@
 public class MenuScreen implements Screen {
 
     private final Stage stage;
+    private final MazeRunnerGame game;
+
+    //Continues the save game, only enabled if there is one.
+    private final TextButton continueButton;
 
     /**
      * Constructor for MenuScreen. Sets up the camera, viewport, stage, and UI elements.
@@ -27,11 +31,12 @@ public class MenuScreen implements Screen {
      * @param game The main game class, used to access global resources and methods.
      */
     public MenuScreen(MazeRunnerGame game) {
+        this.game = game;
         var camera = new OrthographicCamera();
         camera.zoom = 1.5f; // Set camera zoom for a closer view
 
         Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
-        stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
+        stage = new CountedStage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
 
         Table table = new Table(); // Create a table for layout
         table.setFillParent(true); // Make the table fill the stage
@@ -49,6 +54,16 @@ public void changed(ChangeEvent event, Actor actor) {
                 game.goToMapScreen(); // Change to the game screen when button is pressed
             }
         });
+
+        // Create and add a button to continue the saved game
+        continueButton = new TextButton("Continue", game.getSkin());
+        table.add(continueButton).width(300).padTop(20).row();
+        continueButton.addListener(new ChangeListener() {
+            @Override
+            public void changed(ChangeEvent event, Actor actor) {
+                game.continueSavedGame(); // Load the level of the save game and restore it
+            }
+        });
     }
 
     /**
@@ -83,10 +98,12 @@ public void dispose() {
     }
 
     /**
-     * Sets the input processor so that the stage can receive input events.
+     * Sets the input processor so that the stage can receive input events, and enables the continue button
+     * if there is a save game.
      */
     @Override
     public void show() {
+        continueButton.setDisabled(!game.hasSaveGame());
         Gdx.input.setInputProcessor(stage);
     }
 
@@ -0,0 +1,171 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The OccupancyGrid class stores which tiles of the maze are blocked by a wall, an exit or the entry, one byte per tile.
+ * These objects always cover exactly one 64px tile, so whether a rectangle overlaps one of them can be answered by
+ * looking at the few tiles under the rectangle instead of testing every object. The result is exactly the same as
+ * {@link Rectangle#overlaps(Rectangle)} against the 64x64 bounds of the objects.
+ */
+public class OccupancyGrid {
+
+    //The size of a tile in pixels.
+    public static final int TILE_SIZE = 64;
+
+    //The size of the grid in tiles, tiles outside the grid are empty.
+    private final int width, height;
+
+    //The object value (MazeLayout.WALL, EXIT or ENTRY) of every tile, or MazeLayout.EMPTY.
+    private final byte[] tiles;
+
+    /**
+     * Constructor for OccupancyGrid. All tiles are empty at first.
+     *
+     * @param width  The width of the grid in tiles.
+     * @param height The height of the grid in tiles.
+     */
+    public OccupancyGrid(int width, int height) {
+        this.width = width;
+        this.height = height;
+        tiles = new byte[width * height];
+        Arrays.fill(tiles, MazeLayout.EMPTY);
+    }
+
+    /**
+     * Marks the tile under a tile-aligned maze object.
+     *
+     * @param mazeObject  The maze object, placed at a multiple of the tile size.
+     * @param objectValue The object value stored for the tile.
+     */
+    public void mark(MazeObject mazeObject, byte objectValue) {
+        int tileX = MathUtils.floor(mazeObject.getX() / TILE_SIZE);
+        int tileY = MathUtils.floor(mazeObject.getY() / TILE_SIZE);
+        if (tileX >= 0 && tileY >= 0 && tileX < width && tileY < height) {
+            tiles[tileY * width + tileX] = objectValue;
+        }
+    }
+
+    /**
+     * Gets the object value of a tile.
+     *
+     * @param tileX The x-coordinate of the tile.
+     * @param tileY The y-coordinate of the tile.
+     * @return The object value of the tile, or MazeLayout.EMPTY.
+     */
+    public byte getTile(int tileX, int tileY) {
+        if (tileX < 0 || tileY < 0 || tileX >= width || tileY >= height) {
+            return MazeLayout.EMPTY;
+        }
+        return tiles[tileY * width + tileX];
+    }
+
+    /**
+     * Checks whether a rectangle overlaps any tile with the given object value.
+     *
+     * @param bounds      The rectangle to check.
+     * @param objectValue The object value to look for.
+     * @return True if at least one tile under the rectangle has the object value.
+     */
+    public boolean overlaps(Rectangle bounds, byte objectValue) {
+        int fromX = firstTile(bounds.x), toX = lastTile(bounds.x + bounds.width);
+        int fromY = firstTile(bounds.y), toY = lastTile(bounds.y + bounds.height);
+        for (int tileY = fromY; tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                if (getTile(tileX, tileY) == objectValue) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether a rectangle overlaps any marked tile, no matter its object value.
+     *
+     * @param x      The x-coordinate of the rectangle.
+     * @param y      The y-coordinate of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @return True if at least one tile under the rectangle is not empty.
+     */
+    public boolean overlapsAny(float x, float y, float width, float height) {
+        int fromX = firstTile(x), toX = lastTile(x + width);
+        int fromY = firstTile(y), toY = lastTile(y + height);
+        for (int tileY = fromY; tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                if (getTile(tileX, tileY) != MazeLayout.EMPTY) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Collects all tiles with the given object value under a rectangle.
+     *
+     * @param bounds      The rectangle to check.
+     * @param objectValue The object value to look for.
+     * @param result      The array the tile indices (tileY * width + tileX) are written to, it is cleared first.
+     */
+    public void overlappingTiles(Rectangle bounds, byte objectValue, IntArray result) {
+        result.clear();
+        int fromX = firstTile(bounds.x), toX = lastTile(bounds.x + bounds.width);
+        int fromY = firstTile(bounds.y), toY = lastTile(bounds.y + bounds.height);
+        for (int tileY = fromY; tileY <= toY; tileY++) {
+            for (int tileX = fromX; tileX <= toX; tileX++) {
+                if (getTile(tileX, tileY) == objectValue) {
+                    result.add(tileY * width + tileX);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the index of the tile under a tile-aligned maze object, as used by {@link #overlappingTiles}.
+     *
+     * @param mazeObject The maze object.
+     * @return The tile index of the object.
+     */
+    public int tileIndexOf(MazeObject mazeObject) {
+        return MathUtils.floor(mazeObject.getY() / TILE_SIZE) * width + MathUtils.floor(mazeObject.getX() / TILE_SIZE);
+    }
+
+    /**
+     * Gets the width of the grid.
+     *
+     * @return The width in tiles.
+     */
+    public int getWidth() {
+        return width;
+    }
+
+    /**
+     * Gets the height of the grid.
+     *
+     * @return The height in tiles.
+     */
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Gets the first tile a rectangle starting at the given coordinate overlaps.
+     */
+    private static int firstTile(float start) {
+        return MathUtils.floor(start / TILE_SIZE);
+    }
+
+    /**
+     * Gets the last tile a rectangle ending at the given coordinate overlaps. The end itself is exclusive,
+     * like in {@link Rectangle#overlaps(Rectangle)}.
+     */
+    private static int lastTile(float end) {
+        return MathUtils.ceil(end / TILE_SIZE) - 1;
+    }
+}
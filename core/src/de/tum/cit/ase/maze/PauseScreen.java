@@ -11,8 +11,6 @@
 import com.badlogic.gdx.utils.viewport.ScreenViewport;
 import com.badlogic.gdx.utils.viewport.Viewport;
 
-import java.util.HashMap;
-
 /**
  * The PauseScreen class represents the screen that is displayed when the game is paused.
  * It provides options for resuming the game, choosing a new map, and quitting the game.
@@ -20,28 +18,27 @@
 public class PauseScreen implements Screen {
 
     private final Stage stage;
-    private final HashMap<String, Object> statusGame = new HashMap<>();
+
+    //The snapshot of the paused game, or null if there is no game to resume.
+    private GameState state;
 
     /**
      * Constructor for PauseScreen. Sets up the camera, viewport, stage, and UI elements.
+     * The screen is reused for every pause, see {@link #setState(GameState)}.
      *
-     * @param game      The main game class, used to access global resources and methods.
-     * @param statusGame A HashMap containing key-value pairs representing the current game status.
-     *                   Expected keys: "level", "playerX", "playerY", "isKeyCollected", "livesLeft".
+     * @param game The main game class, used to access global resources and methods.
      */
-    public PauseScreen(MazeRunnerGame game, HashMap<String, Object> statusGame) {
+    public PauseScreen(MazeRunnerGame game) {
         var camera = new OrthographicCamera();
         camera.zoom = 1.5f; // Set camera zoom for a closer view
 
         Viewport viewport = new ScreenViewport(camera); // Create a viewport with the camera
-        stage = new Stage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
+        stage = new CountedStage(viewport, game.getSpriteBatch()); // Create a stage for UI elements
 
         Table table = new Table(); // Create a table for layout
         table.setFillParent(true); // Make the table fill the stage
         stage.addActor(table); // Add the table to the stage
 
-        //statusGame = game.getStatusGame();
-
         table.add(new Label("Game Paused", game.getSkin(), "title")).padBottom(80).row();
 
 
@@ -50,14 +47,7 @@ public PauseScreen(MazeRunnerGame game, HashMap<String, Object> statusGame) {
         goToGameButton.addListener(new ChangeListener() {
             @Override
             public void changed(ChangeEvent event, Actor actor) {
-                if (statusGame !=null){
-                    int level = (int) statusGame.get("level");
-                    game.setResumeGame(true);
-                    game.gameResumed(statusGame);
-                    game.goToGame(level);
-                } else {
-                    game.goToMenu();
-                }
+                game.resumeGame(state); // Show the suspended game again, or go to the menu without a game
             }
         });
 
@@ -80,6 +70,15 @@ public void changed(ChangeEvent event, Actor actor) {
         });
     }
 
+    /**
+     * Sets the snapshot of the game that was just paused.
+     *
+     * @param state The snapshot of the paused game, or null if there is no game to resume.
+     */
+    public void setState(GameState state) {
+        this.state = state;
+    }
+
     /**
      * Sets the input processor so the stage can receive input events.
      */
@@ -1,8 +1,12 @@
 package de.tum.cit.ase.maze;
-import java.io.FileReader;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.util.ArrayList;
-import java.util.Properties;
 
 /**
  * The ReadPropertiesFile class is responsible for parsing maze configurations from properties files.
@@ -16,39 +20,117 @@ public class ReadPropertiesFile {
      * Parses a maze configuration from a properties file for a specific level.
      *
      * @param level The level for which the maze configuration should be parsed.
+     * @param filePath The path of the custom map, only used for level 6.
      * @return An ArrayList of MazeObjects representing the maze configuration.
      */
     public ArrayList<MazeObject> parseMaze(int level, String filePath) {
-        ArrayList<MazeObject> mazeObjectList = new ArrayList<>();
+        return createMazeObjects(parseLayout(level, filePath));
+    }
+
+    /**
+     * Gets the path of the properties file of a level.
+     *
+     * @param level The level, between 1 and 6.
+     * @param filePath The path of the custom map, only used for level 6.
+     * @return The path of the map file, or null if no custom map was chosen for level 6.
+     */
+    public static String mapFileName(int level, String filePath) {
         if (level == 6){
-            fileName = filePath;
-        } else{
-            fileName = "maps/level-%d.properties";
+            return filePath;
+        }
+        return String.format("maps/level-%d.properties", level);
+    }
+
+    /**
+     * Parses the tile grid of a maze from a properties file for a specific level, without creating any MazeObjects.
+     * Layouts are taken from the MapCache if the file did not change since it was last parsed. Otherwise, if an up to
+     * date compiled ".mzb" map sits next to the properties file, it is loaded instead of parsing the text.
+     *
+     * @param level The level for which the maze configuration should be parsed.
+     * @param filePath The path of the custom map, only used for level 6.
+     * @return The layout of the maze, or an empty layout if the file could not be read.
+     */
+    public MazeLayout parseLayout(int level, String filePath) {
+        fileName = mapFileName(level, filePath);
 
-            fileName = String.format(fileName, level);
+        if (fileName == null) {
+            report(true, "No map file was chosen");
+            return new MazeLayout(0, 0, new byte[0]);
         }
 
-        try (FileReader reader = new FileReader(fileName)) {
-            Properties properties = new Properties();
-            properties.load(reader);
-            for (String key : properties.stringPropertyNames()) {
-                String[] equal = key.split("=");
-                String[] coordinates = equal[0].split(",");
-                float x = Integer.parseInt(coordinates[0]);
-                float y = Integer.parseInt(coordinates[1]);
-                int objectValue = Integer.parseInt(properties.getProperty(key));
+        File source = new File(fileName);
+        File compiled = CompiledMap.compiledFileFor(source);
+        try {
+            // A level that was entered before is still cached, unless its file changed since
+            MazeLayout layout = MapCache.get(source);
+            if (layout != null) {
+                return layout;
+            }
 
-                MazeObject mazeObject = createMazeObject(objectValue, x * 64, y * 64);
+            // Prefer the compiled map if one sits next to the properties file and is up to date
+            layout = CompiledMap.read(source);
+            if (layout != null) {
+                MapCache.put(source, layout);
+                return layout;
+            }
 
-                mazeObjectList.add(mazeObject);
+            try (InputStream input = new FileInputStream(source)) {
+                layout = new MapParser().parse(input, fileName);
+            }
 
+            // A compiled map exists but is stale, rebuild it so the next load can use it again
+            if (compiled.isFile()) {
+                try {
+                    CompiledMap.write(source, layout);
+                    report(false, "Rebuilt stale compiled map " + compiled.getPath());
+                } catch (IOException e) {
+                    report(true, "Could not rebuild compiled map " + compiled.getPath() + ": " + e.getMessage());
+                }
+            }
+            MapCache.put(source, layout);
+            return layout;
+        } catch (IOException e) {
+            report(true, "Could not read map " + fileName + ": " + e.getMessage());
+            return new MazeLayout(0, 0, new byte[0]);
+        }
+    }
+
+    /**
+     * Creates the MazeObjects for all non-empty tiles of a maze layout.
+     *
+     * @param layout The layout of the maze.
+     * @return An ArrayList of MazeObjects representing the maze configuration.
+     */
+    public static ArrayList<MazeObject> createMazeObjects(MazeLayout layout) {
+        ArrayList<MazeObject> mazeObjectList = new ArrayList<>(layout.getObjectCount());
+        for (int y = 0; y < layout.getHeight(); y++) {
+            for (int x = 0; x < layout.getWidth(); x++) {
+                byte objectValue = layout.getTile(x, y);
+                if (objectValue != MazeLayout.EMPTY) {
+                    mazeObjectList.add(createMazeObject(objectValue, x * 64, y * 64));
+                }
             }
-        } catch (NumberFormatException | IOException e) {
-            e.printStackTrace();
         }
         return mazeObjectList;
     }
 
+    /**
+     * Reports a message through the application log, or on the output or error stream if no application is running,
+     * as when the maps are loaded by the command line tools.
+     *
+     * @param error   True for an error, false for an information.
+     * @param message The message.
+     */
+    private static void report(boolean error, String message) {
+        if (Gdx.app == null) {
+            (error ? System.err : System.out).println("ReadPropertiesFile: " + message);
+        } else if (error) {
+            Gdx.app.error("ReadPropertiesFile", message);
+        } else {
+            Gdx.app.log("ReadPropertiesFile", message);
+        }
+    }
+
     /**
      * Creates a MazeObject based on the provided object value and coordinates.
      *
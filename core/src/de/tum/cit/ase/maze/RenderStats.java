@@ -0,0 +1,140 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The RenderStats class counts the draw calls and the vertices of one frame of the GameScreen, separately for the
+ * objects written into the SpriteBatch every frame and the static objects drawn from the caches of the
+ * {@link StaticGeometry}. It also counts how many images were submitted for drawing after culling the objects outside
+ * the view, out of all images of the level. The GameScreen logs them once per second if enabled with
+ * -Dmaze.renderStats=true.
+ */
+public class RenderStats {
+
+    //Whether the GameScreen logs the statistics.
+    public static final boolean ENABLED = Boolean.getBoolean("maze.renderStats");
+
+    /**
+     * Variables for the counts of the current frame
+     */
+    private int batchDrawCalls = 0;
+    private int batchSprites = 0;
+    private int cacheDrawCalls = 0;
+    private int cachedSprites = 0;
+    private int totalSprites = 0;
+
+    /**
+     * Resets the counts at the start of a frame.
+     */
+    public void beginFrame() {
+        batchDrawCalls = 0;
+        batchSprites = 0;
+        cacheDrawCalls = 0;
+        cachedSprites = 0;
+        totalSprites = 0;
+    }
+
+    /**
+     * Adds a pass of the SpriteBatch, between its begin() and end().
+     *
+     * @param drawCalls The render calls of the SpriteBatch in the pass.
+     * @param sprites   The number of images drawn in the pass.
+     */
+    public void addBatch(int drawCalls, int sprites) {
+        batchDrawCalls += drawCalls;
+        batchSprites += sprites;
+    }
+
+    /**
+     * Adds the images drawn from the caches of the static geometry.
+     *
+     * @param drawCalls The render calls of the caches.
+     * @param sprites   The number of images drawn from the caches.
+     */
+    public void addCache(int drawCalls, int sprites) {
+        cacheDrawCalls += drawCalls;
+        cachedSprites += sprites;
+    }
+
+    /**
+     * Adds images of the level to the total, whether they were submitted or culled.
+     *
+     * @param sprites The number of images.
+     */
+    public void addTotal(int sprites) {
+        totalSprites += sprites;
+    }
+
+    /**
+     * Gets the number of images submitted for drawing in the current frame, to the SpriteBatch or from the caches.
+     *
+     * @return The number of submitted images.
+     */
+    public int getSubmittedSprites() {
+        return batchSprites + cachedSprites;
+    }
+
+    /**
+     * Gets the number of images of the level in the current frame, including the culled ones.
+     *
+     * @return The total number of images.
+     */
+    public int getTotalSprites() {
+        return totalSprites;
+    }
+
+    /**
+     * Gets the number of draw calls in the current frame.
+     *
+     * @return The draw calls of the SpriteBatch and the caches.
+     */
+    public int getDrawCalls() {
+        return batchDrawCalls + cacheDrawCalls;
+    }
+
+    /**
+     * Gets the number of draw calls of the SpriteBatch in the current frame.
+     *
+     * @return The number of draw calls.
+     */
+    public int getBatchDrawCalls() {
+        return batchDrawCalls;
+    }
+
+    /**
+     * Gets the number of draw calls of the caches in the current frame.
+     *
+     * @return The number of draw calls.
+     */
+    public int getCacheDrawCalls() {
+        return cacheDrawCalls;
+    }
+
+    /**
+     * Gets the number of vertices written into the SpriteBatch in the current frame, four per image.
+     *
+     * @return The number of vertices.
+     */
+    public int getBatchVertices() {
+        return batchSprites * 4;
+    }
+
+    /**
+     * Gets the number of vertices drawn from the caches in the current frame, which were written only once.
+     *
+     * @return The number of vertices.
+     */
+    public int getCachedVertices() {
+        return cachedSprites * 4;
+    }
+
+    /**
+     * Describes the counts of the current frame, for the log.
+     *
+     * @return The counts as text.
+     */
+    @Override
+    public String toString() {
+        return "submitted " + getSubmittedSprites() + " of " + totalSprites + " sprites, draw calls " + getDrawCalls()
+                + " (batch " + batchDrawCalls + ", cache " + cacheDrawCalls + "), vertices written "
+                + getBatchVertices() + ", cached vertices drawn " + getCachedVertices();
+    }
+}
@@ -0,0 +1,161 @@
+package de.tum.cit.ase.maze;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The ReplayRunner class is a command line tool replaying {@link InputRecording}s without a window, as fast as the
+ * computer allows. After every step it compares the hash of the {@link World} with the recorded hash and reports the
+ * first step at which they differ, so a change of the game logic that changes how a recorded game plays is found at
+ * the exact step. It also reports the steps per second, which makes recordings usable as benchmarks of real games.
+ * <p>
+ * Usage: {@code ReplayRunner [recordings...]}, by default all recordings in "replays" are replayed, and
+ * {@code ReplayRunner --record TICKS MAP FILE}, which records TICKS steps of a seeded random walk of the player on
+ * the given map, like the one of the {@link SimulationBenchmark}, pausing the game every 10 seconds. Games are
+ * recorded with -Dmaze.record=true.
+ * The exit code is 1 if a replay differs from its recording.
+ */
+public class ReplayRunner {
+
+    //The seed of the recorded random walk.
+    private static final long SEED = 42;
+
+    //The time of one recorded step, the same as a frame at 60 frames per second.
+    private static final float STEP = 1 / 60f;
+
+    //The steps between two pauses of the recorded random walk, which take a snapshot like the GameScreen does.
+    private static final int PAUSE_INTERVAL = 600;
+
+    private ReplayRunner() {
+    }
+
+    /**
+     * Replays the given recordings, or records one with "--record".
+     *
+     * @param args The command line arguments.
+     * @throws IOException If a recording or a map cannot be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        // The maze objects are created without an OpenGL context, so no textures are loaded
+        TextureRegistry.setHeadless(true);
+        if (args.length > 0 && args[0].equals("--record")) {
+            if (args.length != 4) {
+                System.err.println("Usage: ReplayRunner --record TICKS MAP FILE");
+                System.exit(2);
+            }
+            record(Integer.parseInt(args[1]), new File(args[2]), new File(args[3]));
+            return;
+        }
+
+        List<File> recordings = new ArrayList<>();
+        for (String arg : args) {
+            recordings.add(new File(arg));
+        }
+        if (recordings.isEmpty()) {
+            File[] files = new File("replays").listFiles((dir, name) -> name.endsWith(InputRecording.EXTENSION));
+            if (files != null) {
+                Arrays.sort(files);
+                recordings.addAll(Arrays.asList(files));
+            }
+        }
+
+        boolean identical = true;
+        for (File file : recordings) {
+            identical &= replay(file.getPath(), InputRecording.read(file));
+        }
+        if (!identical) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Replays a recording and compares the hash after every step.
+     *
+     * @param name      The name of the recording in the report.
+     * @param recording The recording.
+     * @return True if every step had the recorded hash.
+     * @throws IOException If the map of the recording cannot be read.
+     */
+    static boolean replay(String name, InputRecording recording) throws IOException {
+        MazeLayout layout = SimulationBenchmark.loadLayout(new File(recording.getMapPath()));
+        if (layout.getChecksum() != recording.getLayoutChecksum()) {
+            System.out.printf("%s: the map %s changed since it was recorded%n", name, recording.getMapPath());
+            return false;
+        }
+        World world = createWorld(layout, recording);
+
+        InputState input = new InputState();
+        EnemyStore enemies = world.getEnemies();
+        int tick = 0;
+        long start = System.nanoTime();
+        for (int run = 0; run < recording.getRunCount(); run++) {
+            input.setBits(recording.getRunInput(run));
+            enemies.setLevelOfDetail(recording.getRunLodDistance(run), recording.getFarStepTime());
+            for (int i = 0; i < recording.getRunLength(run); i++, tick++) {
+                world.step(recording.getStep(), input);
+                int hash = world.getStateHash();
+                if (hash != recording.getHash(tick)) {
+                    System.out.printf("%s: DIVERGED at step %d of %d (world step %d), hash %08x instead of %08x%n",
+                            name, tick, recording.getTickCount(), world.getTicks(), hash, recording.getHash(tick));
+                    return false;
+                }
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%s: %d steps in %d runs replayed in %.3f s = %.0f steps/s (%.0fx real time), identical%n",
+                name, tick, recording.getRunCount(), seconds, tick / seconds, tick * recording.getStep() / seconds);
+        return true;
+    }
+
+    /**
+     * Creates the World of a recording the same way the GameScreen did, restoring the snapshot it started from.
+     */
+    private static World createWorld(MazeLayout layout, InputRecording recording) {
+        World world = new World(layout, ReadPropertiesFile.createMazeObjects(layout), new Character(),
+                new Random(recording.getSeed()));
+        world.setChaseMode(recording.isChaseMode());
+        GameState initialState = recording.getInitialState();
+        if (initialState != null) {
+            world.restoreState(initialState);
+        }
+        return world;
+    }
+
+    /**
+     * Records a seeded random walk of the player on a map and checks that it replays identically. Every pause takes
+     * a snapshot and encodes it as a save game, which must not change how the game continues.
+     */
+    private static void record(int ticks, File map, File file) throws IOException {
+        MazeLayout layout = SimulationBenchmark.loadLayout(map);
+        long seed = new Random(SEED).nextLong();
+        World world = new World(layout, ReadPropertiesFile.createMazeObjects(layout), new Character(), new Random(seed));
+        InputRecording recording = new InputRecording(map.getPath(), layout.getChecksum(), seed, STEP, false, 0.1f,
+                null);
+
+        Random walk = new Random(SEED);
+        InputState input = new InputState();
+        int direction = 0;
+        for (int i = 0; i < ticks; i++) {
+            // Change the direction of the player about twice per second
+            if (i % 30 == 0) {
+                direction = walk.nextInt(4);
+            }
+            input.set(direction == 0, direction == 1, direction == 2, direction == 3);
+            world.step(STEP, input);
+            recording.record(input, 0, world.getStateHash());
+            if ((i + 1) % PAUSE_INTERVAL == 0) {
+                SaveGame.encode(world.saveState(6, map.getPath()));
+            }
+        }
+        recording.write(file);
+        System.out.printf("Recorded %d steps in %d runs to %s (%d bytes)%n", ticks, recording.getRunCount(),
+                file.getPath(), file.length());
+        if (!replay(file.getPath(), InputRecording.read(file))) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * The SaveGame class reads and writes save games (".mzs"), the binary form of a {@link GameState}.
+ * A save game contains a fixed size header followed by the snapshot:
+ * <pre>
+ * int   magic ("MZS" + 0)        int   payload length
+ * int   version                  int   payload checksum (CRC32)
+ *                                byte[payload length] snapshot, see GameState#write
+ * </pre>
+ * The walls and the other maze objects are not saved, they come from the map the level is loaded from, and the
+ * snapshot only stores the checksum of its layout. So a save game holds the player, the enemies and the running
+ * timers, a few kilobytes even for large maps, and reading it is much faster than parsing a ".properties" file.
+ * <p>
+ * Save games are written to a temporary file first and then moved into place, so a crash while saving never leaves
+ * a broken save game behind. {@link #writeInBackground(File, GameState)} does this on a background thread, so the
+ * render thread never waits for the disk.
+ */
+public class SaveGame {
+
+    //File extension of save games.
+    public static final String EXTENSION = ".mzs";
+
+    //Version of the binary layout, save games with another version are ignored.
+    public static final int VERSION = 2;
+
+    private static final int MAGIC = 0x4D5A5300;
+    private static final int HEADER_SIZE = 4 + 4 + 4 + 4;
+
+    //Writes the save games one after the other, so a newer save game is never overwritten by an older one.
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "SaveGame");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    //The last save game handed to the background thread, null if there is none.
+    private static Future<?> pendingWrite;
+
+    private SaveGame() {
+    }
+
+    /**
+     * Encodes a snapshot with the header of a save game.
+     *
+     * @param state The snapshot.
+     * @return The bytes of the save game.
+     */
+    public static byte[] encode(GameState state) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + state.getSerializedSize());
+        buffer.position(HEADER_SIZE);
+        state.write(buffer);
+
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.position() - HEADER_SIZE);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, buffer.position() - HEADER_SIZE);
+        buffer.putInt(12, (int) crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * Decodes the bytes of a save game.
+     *
+     * @param bytes The bytes of the save game.
+     * @return The snapshot, or null if the bytes are from another version or corrupt.
+     */
+    public static GameState decode(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        int length = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (length != buffer.remaining()) {
+            return null;
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, HEADER_SIZE, length);
+        if ((int) crc.getValue() != checksum) {
+            return null;
+        }
+
+        try {
+            GameState state = GameState.read(buffer);
+            return buffer.hasRemaining() ? null : state;
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads a save game.
+     *
+     * @param file The save game file.
+     * @return The snapshot, or null if there is no save game, or it is from another version or corrupt.
+     * @throws IOException If the save game exists but cannot be read.
+     */
+    public static GameState read(File file) throws IOException {
+        if (!file.isFile() || file.length() < HEADER_SIZE) {
+            return null;
+        }
+        return decode(Files.readAllBytes(file.toPath()));
+    }
+
+    /**
+     * Writes a save game. The file is written to a temporary file first and then moved into place, atomically if
+     * the file system supports it, so a reader never sees a partially written save game.
+     *
+     * @param file  The save game file, its directory is created if needed.
+     * @param state The snapshot.
+     * @throws IOException If the save game cannot be written.
+     */
+    public static void write(File file, GameState state) throws IOException {
+        writeAtomically(file, encode(state));
+    }
+
+    /**
+     * Writes bytes to a temporary file next to the given file and moves it into place, atomically if the file system
+     * supports it. Also used for the recordings of the {@link InputRecording}.
+     *
+     * @param file  The file, its directory is created if needed.
+     * @param bytes The content of the file.
+     * @throws IOException If the file cannot be written.
+     */
+    static void writeAtomically(File file, byte[] bytes) throws IOException {
+        File directory = file.getAbsoluteFile().getParentFile();
+        Files.createDirectories(directory.toPath());
+        Path temporary = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+        try {
+            Files.write(temporary, bytes);
+            try {
+                Files.move(temporary, file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Writes a save game on the background thread and returns immediately. The snapshot is immutable, so it is
+     * encoded on the background thread as well. Errors are logged, the previous save game stays in place.
+     *
+     * @param file  The save game file.
+     * @param state The snapshot.
+     */
+    public static synchronized void writeInBackground(File file, GameState state) {
+        pendingWrite = WRITER.submit(() -> {
+            try {
+                write(file, state);
+            } catch (IOException | RuntimeException e) {
+                reportError("Could not save the game to " + file.getPath(), e);
+            }
+        });
+    }
+
+    /**
+     * Waits until the save games handed to the background thread are written, called before the game exits.
+     *
+     * @param timeoutMillis The longest time to wait in milliseconds.
+     * @return True if all save games are written, false if the time ran out.
+     */
+    public static boolean awaitPendingWrites(long timeoutMillis) {
+        Future<?> write;
+        synchronized (SaveGame.class) {
+            write = pendingWrite;
+        }
+        if (write == null) {
+            return true;
+        }
+        try {
+            write.get(timeoutMillis, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (Exception e) {
+            return write.isDone();
+        }
+    }
+
+    /**
+     * Deletes a save game on the background thread, after the save games that are still being written.
+     *
+     * @param file The save game file.
+     */
+    public static synchronized void deleteInBackground(File file) {
+        pendingWrite = WRITER.submit(() -> {
+            try {
+                Files.deleteIfExists(file.toPath());
+            } catch (IOException e) {
+                reportError("Could not delete the save game " + file.getPath(), e);
+            }
+        });
+    }
+
+    /**
+     * Reports an error of the background thread through the application log, or on the error stream if no
+     * application is running.
+     */
+    private static void reportError(String message, Exception e) {
+        if (Gdx.app != null) {
+            Gdx.app.error("SaveGame", message, e);
+        } else {
+            System.err.println("SaveGame: " + message + ": " + e);
+        }
+    }
+}
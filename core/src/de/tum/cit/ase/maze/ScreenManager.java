@@ -0,0 +1,301 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The ScreenManager class owns the menu screens of the game: the MenuScreen, the LoadMapScreen and the PauseScreen.
+ * Each of them is created the first time it is needed and then reused for every later navigation, so the stage, the
+ * table and the widgets built from the skin are only created once. All of them are disposed together when the game
+ * is closed. The GameScreen and the LoadingScreen belong to one level and are not pooled.
+ * <p>
+ * The manager counts how often each screen was constructed and reused. With -Dmaze.navigationCheck=N, the game
+ * navigates N times between the menu screens after it started, and in every cycle also loads a level, pauses and
+ * resumes its GameScreen and goes back to the menu. It counts the live textures, fonts and stages after every cycle
+ * and fails if a screen was constructed again, a count grew or the used heap grew by more than
+ * -Dmaze.navigationHeapTolerance kilobytes. Otherwise it logs the counts and the change of the used heap and exits.
+ */
+public class ScreenManager implements Disposable {
+
+    //The number of navigation cycles run after the start, set with -Dmaze.navigationCheck, 0 to run none.
+    public static final int NAVIGATION_CHECK = Integer.getInteger("maze.navigationCheck", 0);
+
+    //How much the used heap may grow over the navigation check in kilobytes, set with -Dmaze.navigationHeapTolerance.
+    private static final long HEAP_TOLERANCE_KB = Long.getLong("maze.navigationHeapTolerance", 2048);
+
+    //The level played in every navigation cycle, and how long its loading may take.
+    private static final int CHECK_LEVEL = 1;
+    private static final long LOAD_TIMEOUT_NANOS = 10_000_000_000L;
+
+    //The resources counted by the navigation check, in the order of liveResources().
+    private static final String[] RESOURCES = {"textures", "fonts", "stages"};
+
+    /**
+     * The pooled screens.
+     */
+    public enum Kind {
+        MENU,
+        LOAD_MAP,
+        PAUSE
+    }
+
+    private final MazeRunnerGame game;
+
+    //The created screens, indexed by the ordinal of their kind, null until they are needed.
+    private final Screen[] screens = new Screen[Kind.values().length];
+
+    //How often each screen was constructed and how often it was reused.
+    private final int[] constructions = new int[Kind.values().length];
+    private final int[] reuses = new int[Kind.values().length];
+
+    /**
+     * Constructor for ScreenManager. No screen is created yet.
+     *
+     * @param game The main game class, passed to the screens.
+     */
+    public ScreenManager(MazeRunnerGame game) {
+        this.game = game;
+    }
+
+    /**
+     * Gets the main menu, creating it the first time.
+     *
+     * @return The MenuScreen.
+     */
+    public MenuScreen getMenuScreen() {
+        return (MenuScreen) get(Kind.MENU);
+    }
+
+    /**
+     * Gets the map selection, creating it the first time.
+     *
+     * @return The LoadMapScreen.
+     */
+    public LoadMapScreen getLoadMapScreen() {
+        return (LoadMapScreen) get(Kind.LOAD_MAP);
+    }
+
+    /**
+     * Gets the pause menu, creating it the first time.
+     *
+     * @param state The snapshot of the paused game, shown by the pause menu until the next pause.
+     * @return The PauseScreen.
+     */
+    public PauseScreen getPauseScreen(GameState state) {
+        PauseScreen pauseScreen = (PauseScreen) get(Kind.PAUSE);
+        pauseScreen.setState(state);
+        return pauseScreen;
+    }
+
+    /**
+     * Gets a screen, creating it if it does not exist yet, and counts the construction or the reuse.
+     */
+    private Screen get(Kind kind) {
+        int k = kind.ordinal();
+        if (screens[k] == null) {
+            screens[k] = switch (kind) {
+                case MENU -> new MenuScreen(game);
+                case LOAD_MAP -> new LoadMapScreen(game);
+                case PAUSE -> new PauseScreen(game);
+            };
+            constructions[k]++;
+        } else {
+            reuses[k]++;
+        }
+        return screens[k];
+    }
+
+    /**
+     * Checks whether a screen is one of the pooled screens, which must not be disposed by anyone else.
+     *
+     * @param screen The screen.
+     * @return True if the screen belongs to this manager.
+     */
+    public boolean owns(Screen screen) {
+        for (Screen pooled : screens) {
+            if (pooled != null && pooled == screen) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets how often a screen was constructed, at most once unless it was disposed in between.
+     *
+     * @param kind The screen.
+     * @return The number of constructions.
+     */
+    public int getConstructions(Kind kind) {
+        return constructions[kind.ordinal()];
+    }
+
+    /**
+     * Gets how often an existing screen was reused.
+     *
+     * @param kind The screen.
+     * @return The number of reuses.
+     */
+    public int getReuses(Kind kind) {
+        return reuses[kind.ordinal()];
+    }
+
+    /**
+     * Builds a short summary of the constructions and reuses of all screens, used for logging.
+     *
+     * @return The statistics as a String.
+     */
+    public String getStatistics() {
+        StringBuilder statistics = new StringBuilder();
+        for (Kind kind : Kind.values()) {
+            if (statistics.length() > 0) {
+                statistics.append(", ");
+            }
+            statistics.append(kind.name().toLowerCase()).append(": constructed ").append(constructions[kind.ordinal()])
+                    .append(", reused ").append(reuses[kind.ordinal()]);
+        }
+        return statistics.toString();
+    }
+
+    /**
+     * Navigates between the menu, the map selection and the pause menu, pauses and resumes a loaded GameScreen and
+     * counts the live textures, fonts and stages after every cycle. After the first cycle, every navigation only
+     * reuses screens, and every GameScreen releases what it loaded when it is disposed, so neither the constructions
+     * nor the counts may grow, and the used heap only within the tolerance. If they do, the error is logged and the
+     * check fails, otherwise the counts and the change of the used heap are logged and the game exits.
+     *
+     * @param cycles The number of navigation cycles.
+     * @throws IllegalStateException If a screen was constructed again, a count grew or the used heap grew too much.
+     */
+    public void checkNavigation(int cycles) {
+        // The first cycle creates the screens
+        navigate();
+        int constructed = totalConstructions();
+        int[] before = liveResources();
+        long heapBefore = usedHeap();
+        for (int cycle = 1; cycle <= cycles; cycle++) {
+            navigate();
+            int[] live = liveResources();
+            for (int r = 0; r < RESOURCES.length; r++) {
+                if (live[r] > before[r]) {
+                    failNavigation("the live " + RESOURCES[r] + " grew from " + before[r] + " to " + live[r]
+                            + " in cycle " + cycle);
+                }
+            }
+            if (totalConstructions() != constructed) {
+                failNavigation((totalConstructions() - constructed) + " screens were constructed again in cycle "
+                        + cycle + "; " + getStatistics());
+            }
+        }
+        long heapAfter = usedHeap();
+        if (heapAfter - heapBefore > HEAP_TOLERANCE_KB * 1024) {
+            failNavigation("the used heap grew by " + (heapAfter - heapBefore) / 1024 + " KB in " + cycles
+                    + " cycles, more than " + HEAP_TOLERANCE_KB + " KB");
+        }
+
+        StringBuilder counts = new StringBuilder();
+        int[] live = liveResources();
+        for (int r = 0; r < RESOURCES.length; r++) {
+            counts.append(", ").append(live[r]).append(' ').append(RESOURCES[r]);
+        }
+        Gdx.app.log("ScreenManager", cycles + " navigation cycles passed" + counts + " live, used heap changed by "
+                + (heapAfter - heapBefore) / 1024 + " KB; " + getStatistics());
+        Gdx.app.exit();
+    }
+
+    /**
+     * Logs why the navigation check failed and stops the game with the error.
+     */
+    private static void failNavigation(String message) {
+        Gdx.app.error("ScreenManager", "Navigation check FAILED: " + message);
+        throw new IllegalStateException("Navigation check failed: " + message);
+    }
+
+    /**
+     * Counts the live resources: the textures loaded from files, which includes the skin and every font created from
+     * a file, together with the textures of the TextureRegistry, the fonts of the skin, and the stages of all screens.
+     */
+    private int[] liveResources() {
+        ObjectMap<String, BitmapFont> fonts = game.getSkin().getAll(BitmapFont.class);
+        return new int[]{Texture.getNumManagedTextures() + TextureRegistry.getResidentCount(),
+                fonts == null ? 0 : fonts.size, CountedStage.getLiveCount()};
+    }
+
+    /**
+     * Goes once through the menu screens and through a paused and resumed game, ending at the menu.
+     */
+    private void navigate() {
+        game.goToMapScreen();
+        game.goToPauseScreen(null);
+        game.goToMenu();
+        pauseAndResumeGame();
+    }
+
+    /**
+     * Loads the check level by rendering the LoadingScreen until it hands over the GameScreen, pauses and resumes
+     * the GameScreen the way the game does, and goes back to the menu, which disposes the GameScreen.
+     */
+    private void pauseAndResumeGame() {
+        game.goToGame(CHECK_LEVEL);
+        long deadline = System.nanoTime() + LOAD_TIMEOUT_NANOS;
+        while (game.getScreen() instanceof LoadingScreen) {
+            if (System.nanoTime() > deadline) {
+                failNavigation("level " + CHECK_LEVEL + " was not loaded within " + LOAD_TIMEOUT_NANOS / 1_000_000_000L
+                        + " s");
+            }
+            game.render();
+        }
+        if (!(game.getScreen() instanceof GameScreen)) {
+            failNavigation("level " + CHECK_LEVEL + " could not be loaded");
+        }
+        GameScreen gameScreen = (GameScreen) game.getScreen();
+        game.render(); // The first frame starts the level
+
+        GameState state = gameScreen.saveState();
+        game.goToPauseScreen(state);
+        game.render();
+        game.resumeGame(state);
+        if (game.getScreen() != gameScreen) {
+            failNavigation("resuming did not show the paused GameScreen again");
+        }
+        game.render(); // The first frame after resuming logs the resume latency
+        game.goToMenu();
+    }
+
+    /**
+     * Gets the number of constructions of all screens.
+     */
+    private int totalConstructions() {
+        int total = 0;
+        for (int count : constructions) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Gets the used heap after a garbage collection, in bytes.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Disposes all created screens, called once when the game is closed.
+     */
+    @Override
+    public void dispose() {
+        for (int k = 0; k < screens.length; k++) {
+            if (screens[k] != null) {
+                screens[k].dispose();
+                screens[k] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package de.tum.cit.ase.maze;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The SimulationBenchmark class is a command line tool that runs the {@link World} of a map without a window or an
+ * OpenGL context and reports how many simulation steps per second it achieves. The player is moved by a seeded random
+ * walk, so every run of the benchmark simulates exactly the same game.
+ * <p>
+ * Usage: {@code SimulationBenchmark [--ticks N] [--stress ENEMIES] [--chase] [--ai-budget MICROS [--nearest-first]]
+ * [--lod PIXELS] [--snapshot] [map files...]}, by default all maps in "maps" are
+ * run for 100000 steps. With "--stress", a generated open maze with the given number of enemies is run instead, once
+ * with the serial and once with the parallel enemy update, and the exit code is 1 if their checksums differ. With
+ * "--chase", the enemies chase the player along the shared flow field instead of walking randomly. With "--ai-budget", the enemy
+ * decisions are limited to the given time per step, and the achieved decisions per enemy and second and the budget
+ * overruns are reported. The checksums then depend on the speed of the computer. With "--lod", only enemies within
+ * the given distance of the player are updated every step, the others every 0.1 seconds. With "--snapshot", the time
+ * to take a {@link GameState} and to restore it into a new World is reported, and the restored World is checked to
+ * continue exactly like the original one, which must continue like a World without snapshots. The snapshot is also
+ * written to a save game and read back, and the time to read it is compared with the time to parse the ".properties"
+ * file of the map.
+ */
+public class SimulationBenchmark {
+
+    //The time covered by one step, the same as a frame at 60 frames per second.
+    private static final float STEP = 1 / 60f;
+
+    //Steps run before measuring, so the JIT compiled the game logic.
+    private static final int WARM_UP_TICKS = 20_000;
+
+    //The seed of the enemy movement and of the random walk of the player.
+    private static final long SEED = 42;
+
+    //Whether the enemies chase the player.
+    private static boolean chase = false;
+
+    //The time budget of the enemy decisions per step in nanoseconds, 0 for no budget, and the order of the decisions.
+    private static long aiBudget = 0;
+    private static AiScheduler.Order aiOrder = AiScheduler.Order.ROUND_ROBIN;
+
+    //The distance within which enemies are updated every step, 0 to update all enemies every step.
+    private static float lodDistance = 0;
+
+    //Whether the snapshots of the game are measured and checked.
+    private static boolean snapshot = false;
+
+    //The steps run before a snapshot is taken, the steps compared after it, and the number of measured snapshots.
+    private static final int SNAPSHOT_TICKS = 2_000;
+    private static final int SNAPSHOT_REPEATS = 1_000;
+
+    //The number of measured save game writes and reads, and of parsed ".properties" files.
+    private static final int SAVE_REPEATS = 100;
+
+    //The average number of enemies updated per step in the last run.
+    private static double averageUpdated;
+
+    //The checksum of the enemy positions after the last reported run.
+    private static int lastChecksum;
+
+    /**
+     * Runs the benchmark on the given maps, or on all maps in the "maps" directory if no maps are given.
+     *
+     * @param args Optional "--ticks N" to set the number of measured steps, followed by map files.
+     */
+    public static void main(String[] args) throws IOException {
+        int ticks = 100_000;
+        int stressEnemies = 0;
+        ArrayList<File> maps = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--ticks") && i + 1 < args.length) {
+                ticks = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--stress") && i + 1 < args.length) {
+                stressEnemies = Integer.parseInt(args[++i]);
+            } else if (args[i].equals("--chase")) {
+                chase = true;
+            } else if (args[i].equals("--ai-budget") && i + 1 < args.length) {
+                aiBudget = Long.parseLong(args[++i]) * 1000;
+            } else if (args[i].equals("--lod") && i + 1 < args.length) {
+                lodDistance = Float.parseFloat(args[++i]);
+            } else if (args[i].equals("--nearest-first")) {
+                aiOrder = AiScheduler.Order.NEAREST_FIRST;
+            } else if (args[i].equals("--snapshot")) {
+                snapshot = true;
+            } else {
+                maps.add(new File(args[i]));
+            }
+        }
+        // The maze objects are created without textures
+        TextureRegistry.setHeadless(true);
+
+        if (stressEnemies > 0) {
+            MazeLayout layout = stressLayout(stressEnemies);
+            double serial = report("stress maze, serial", layout, ticks, Integer.MAX_VALUE);
+            int serialChecksum = lastChecksum;
+            double parallel = report("stress maze, parallel on " + ForkJoinPool.getCommonPoolParallelism() + " threads",
+                    layout, ticks, 0);
+            System.out.printf("Speedup of the parallel enemy update: %.2fx%n", serial / parallel);
+            // With a time budget the decisions depend on the speed of the computer, so the checksums may differ
+            if (aiBudget == 0 && serialChecksum != lastChecksum) {
+                System.out.printf("The parallel enemy update DIFFERS from the serial one: checksum %08x instead of %08x%n",
+                        lastChecksum, serialChecksum);
+                System.exit(1);
+            }
+            return;
+        }
+        if (maps.isEmpty()) {
+            File[] files = new File("maps").listFiles((dir, name) -> name.endsWith(".properties"));
+            if (files != null) {
+                Arrays.sort(files);
+                maps.addAll(Arrays.asList(files));
+            }
+        }
+
+        boolean restoredExactly = true;
+        for (File map : maps) {
+            MazeLayout layout = loadLayout(map);
+            report(map.getPath(), layout, ticks, EnemyStore.DEFAULT_PARALLEL_THRESHOLD);
+            if (snapshot) {
+                restoredExactly &= reportSnapshot(layout, map);
+            }
+        }
+        if (!restoredExactly) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Measures taking a snapshot of a running World and restoring it into a new World of the same layout, then runs
+     * both Worlds with the same input and checks that they stay identical, also to a World of which no snapshot was
+     * taken. The snapshot is restored from a save game, so the binary form is checked as well.
+     *
+     * @param layout The layout to run.
+     * @param source The ".properties" file of the map, parsed to compare with reading the save game.
+     * @return True if the restored World continued exactly like the original one.
+     * @throws IOException If the save game cannot be written or read, or the map cannot be parsed.
+     */
+    private static boolean reportSnapshot(MazeLayout layout, File source) throws IOException {
+        World world = run(layout, SNAPSHOT_TICKS, EnemyStore.DEFAULT_PARALLEL_THRESHOLD);
+        // Never snapshotted, so taking snapshots of the original World must not change how it continues
+        World untouched = run(layout, SNAPSHOT_TICKS, EnemyStore.DEFAULT_PARALLEL_THRESHOLD);
+        // A different seed, so the restored World only continues like the original one through the snapshot
+        World restored = createWorld(layout, EnemyStore.DEFAULT_PARALLEL_THRESHOLD, SEED + 1);
+
+        GameState state = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOT_REPEATS; i++) {
+            state = world.saveState(1, null);
+        }
+        double saveMicros = (System.nanoTime() - start) / 1e3 / SNAPSHOT_REPEATS;
+        start = System.nanoTime();
+        for (int i = 0; i < SNAPSHOT_REPEATS; i++) {
+            restored.restoreState(state);
+        }
+        double restoreMicros = (System.nanoTime() - start) / 1e3 / SNAPSHOT_REPEATS;
+
+        File directory = Files.createTempDirectory("maze-saves").toFile();
+        File saveFile = new File(directory, "benchmark" + SaveGame.EXTENSION);
+        GameState loaded = null;
+        try {
+            start = System.nanoTime();
+            for (int i = 0; i < SAVE_REPEATS; i++) {
+                SaveGame.write(saveFile, state);
+            }
+            double writeMicros = (System.nanoTime() - start) / 1e3 / SAVE_REPEATS;
+            start = System.nanoTime();
+            for (int i = 0; i < SAVE_REPEATS; i++) {
+                loaded = SaveGame.read(saveFile);
+            }
+            double readMicros = (System.nanoTime() - start) / 1e3 / SAVE_REPEATS;
+            long saveBytes = saveFile.length();
+            start = System.nanoTime();
+            for (int i = 0; i < SAVE_REPEATS; i++) {
+                try (InputStream input = new FileInputStream(source)) {
+                    new MapParser().parse(input, source.getPath());
+                }
+            }
+            double parseMicros = (System.nanoTime() - start) / 1e3 / SAVE_REPEATS;
+            System.out.printf("  save game: %d bytes, written in %.1f us, read in %.1f us, parsing the map takes %.1f us%n",
+                    saveBytes, writeMicros, readMicros, parseMicros);
+        } finally {
+            saveFile.delete();
+            directory.delete();
+        }
+        if (loaded == null) {
+            System.out.println("  save game: could not be read back");
+            return false;
+        }
+        restored.restoreState(loaded);
+
+        Random walk = new Random(SEED + 2);
+        InputState input = new InputState();
+        int direction = 0;
+        int diverged = -1;
+        for (int i = 0; i < SNAPSHOT_TICKS && diverged < 0; i++) {
+            if (i % 30 == 0) {
+                direction = walk.nextInt(4);
+            }
+            input.set(direction == 0, direction == 1, direction == 2, direction == 3);
+            world.step(STEP, input);
+            restored.step(STEP, input);
+            untouched.step(STEP, input);
+            if (world.getStateHash() != restored.getStateHash() || world.getStateHash() != untouched.getStateHash()
+                    || world.getElapsedTime() != restored.getElapsedTime()) {
+                diverged = i;
+            }
+        }
+        System.out.printf("  snapshot: saved in %.1f us, restored in %.1f us, %s%n", saveMicros, restoreMicros,
+                diverged < 0 ? "identical for " + SNAPSHOT_TICKS + " steps after restoring and without snapshots"
+                        : "DIVERGED after " + (diverged + 1) + " steps");
+        return diverged < 0;
+    }
+
+    /**
+     * Runs a layout after a warm-up and prints the measured steps per second and a checksum of the final enemy
+     * positions, which is the same for the serial and the parallel enemy update.
+     *
+     * @param name              The name of the layout in the report.
+     * @param layout            The layout to run.
+     * @param ticks             The number of measured steps.
+     * @param parallelThreshold The number of enemies from which on enemies are updated in parallel.
+     * @return The measured time per step in microseconds.
+     */
+    private static double report(String name, MazeLayout layout, int ticks, int parallelThreshold) {
+        run(layout, Math.min(WARM_UP_TICKS, ticks), parallelThreshold);
+        long start = System.nanoTime();
+        World world = run(layout, ticks, parallelThreshold);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        lastChecksum = checksum(world);
+        System.out.printf("%s: %d enemies, %d steps in %.3f s = %.0f steps/s (%.2f us/step), checksum %08x%n", name,
+                world.getEnemies().size(), ticks, seconds, ticks / seconds, seconds * 1e6 / ticks, lastChecksum);
+        if (lodDistance > 0) {
+            System.out.printf("  level of detail: %.0f of %d enemies updated per step on average%n", averageUpdated,
+                    world.getEnemies().size());
+        }
+        AiScheduler scheduler = world.getAiScheduler();
+        if (scheduler.isLimited()) {
+            System.out.printf("  decisions: %.1f per enemy and second, longest wait %.3f s, %d of %d steps over budget"
+                            + " (at most by %d us)%n", scheduler.getAverageFrequency(world.getEnemies().size()),
+                    scheduler.getLongestWait(), scheduler.getOverruns(), scheduler.getSteps(),
+                    scheduler.getMaxOverrun() / 1000);
+        }
+        return seconds * 1e6 / ticks;
+    }
+
+    /**
+     * Computes a checksum of the positions of all enemies.
+     */
+    private static int checksum(World world) {
+        EnemyStore enemies = world.getEnemies();
+        int checksum = 1;
+        for (int i = 0; i < enemies.size(); i++) {
+            checksum = 31 * checksum + Float.floatToIntBits(enemies.getX(i));
+            checksum = 31 * checksum + Float.floatToIntBits(enemies.getY(i));
+        }
+        return checksum;
+    }
+
+    /**
+     * Generates a square maze surrounded by walls, with the entry on the left, an exit on the right, a key near the
+     * entry and the given number of enemies on random free tiles.
+     *
+     * @param enemies The number of enemies.
+     * @return The generated layout.
+     */
+    static MazeLayout stressLayout(int enemies) {
+        int side = (int) Math.ceil(Math.sqrt(enemies * 2.0)) + 4;
+        byte[] tiles = new byte[side * side];
+        Arrays.fill(tiles, MazeLayout.EMPTY);
+        for (int i = 0; i < side; i++) {
+            tiles[i] = tiles[(side - 1) * side + i] = MazeLayout.WALL;
+            tiles[i * side] = tiles[i * side + side - 1] = MazeLayout.WALL;
+        }
+        tiles[side] = MazeLayout.ENTRY;
+        tiles[side * (side - 2) + side - 1] = MazeLayout.EXIT;
+        tiles[2 * side + 2] = MazeLayout.KEY;
+        Random random = new Random(SEED);
+        for (int placed = 0; placed < enemies; ) {
+            int tile = (1 + random.nextInt(side - 2)) * side + 1 + random.nextInt(side - 2);
+            if (tiles[tile] == MazeLayout.EMPTY) {
+                tiles[tile] = MazeLayout.ENEMY;
+                placed++;
+            }
+        }
+        return new MazeLayout(side, side, tiles);
+    }
+
+    /**
+     * Loads the layout of a map, from its compiled file if it is up to date.
+     *
+     * @param source The ".properties" file of the map.
+     * @return The layout of the map.
+     * @throws IOException If the map cannot be read.
+     */
+    static MazeLayout loadLayout(File source) throws IOException {
+        MazeLayout layout = CompiledMap.read(source);
+        if (layout == null) {
+            try (InputStream input = new FileInputStream(source)) {
+                layout = new MapParser().parse(input, source.getPath());
+            }
+        }
+        return layout;
+    }
+
+    /**
+     * Creates a new World for the layout and runs it for the given number of steps.
+     *
+     * @param layout            The layout of the map.
+     * @param ticks             The number of steps.
+     * @param parallelThreshold The number of enemies from which on enemies are updated in parallel.
+     * @return The World after the last step.
+     */
+    private static World run(MazeLayout layout, int ticks, int parallelThreshold) {
+        World world = createWorld(layout, parallelThreshold, SEED);
+        Random walk = new Random(SEED);
+        InputState input = new InputState();
+        int direction = 0;
+        long updated = 0;
+        for (int i = 0; i < ticks; i++) {
+            // Change the direction of the player about twice per second
+            if (i % 30 == 0) {
+                direction = walk.nextInt(4);
+            }
+            input.set(direction == 0, direction == 1, direction == 2, direction == 3);
+            world.step(STEP, input);
+            updated += world.getEnemies().getLastUpdated();
+        }
+        averageUpdated = (double) updated / ticks;
+        return world;
+    }
+
+    /**
+     * Creates a new World for the layout with the options of the benchmark.
+     *
+     * @param layout            The layout of the map.
+     * @param parallelThreshold The number of enemies from which on enemies are updated in parallel.
+     * @param seed              The seed of the enemy movement.
+     * @return The new World.
+     */
+    private static World createWorld(MazeLayout layout, int parallelThreshold, long seed) {
+        World world = new World(layout, ReadPropertiesFile.createMazeObjects(layout), new Character(), new Random(seed));
+        world.getEnemies().setParallelThreshold(parallelThreshold);
+        world.setChaseMode(chase);
+        world.getAiScheduler().setBudget(aiBudget, aiOrder);
+        world.getEnemies().setLevelOfDetail(lodDistance, 0.1f);
+        return world;
+    }
+}
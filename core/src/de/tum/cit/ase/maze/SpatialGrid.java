@@ -0,0 +1,175 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.IntArray;
+
+import java.util.Arrays;
+
+/**
+ * The SpatialGrid class is a uniform grid of 64px cells used to find the objects near a rectangle.
+ * Objects are identified by an int id, usually their index in the array they are stored in, and are kept in the cell
+ * that contains their bottom left corner. Since no object is larger than a cell, a query only has to look at the cells
+ * overlapping the rectangle plus one cell to the left and below.
+ * Every cell is a doubly linked list over the ids, so inserting, moving and removing an object takes constant time
+ * and no memory is allocated after construction.
+ */
+public class SpatialGrid {
+
+    //The size of a cell in pixels, equal to the size of a tile.
+    public static final int CELL_SIZE = 64;
+
+    //The size of the grid in cells, positions outside the grid are clamped to the border cells.
+    private final int columns, rows;
+
+    //The first id in each cell, or -1 if the cell is empty.
+    private final int[] cellHead;
+
+    //The neighbours of each id in its cell list and the cell it is in, or -1 if it is not in the grid.
+    private final int[] next, previous, cellOf;
+
+    //The number of ids currently in the grid.
+    private int size;
+
+    /**
+     * Constructor for SpatialGrid.
+     *
+     * @param columns  The number of cells in x direction.
+     * @param rows     The number of cells in y direction.
+     * @param capacity The number of ids, all ids have to be between 0 and capacity - 1.
+     */
+    public SpatialGrid(int columns, int rows, int capacity) {
+        this.columns = Math.max(1, columns);
+        this.rows = Math.max(1, rows);
+        cellHead = new int[this.columns * this.rows];
+        next = new int[capacity];
+        previous = new int[capacity];
+        cellOf = new int[capacity];
+        Arrays.fill(cellHead, -1);
+        Arrays.fill(cellOf, -1);
+    }
+
+    /**
+     * Adds an object to the grid.
+     *
+     * @param id The id of the object.
+     * @param x  The x-coordinate of the bottom left corner of the object.
+     * @param y  The y-coordinate of the bottom left corner of the object.
+     */
+    public void insert(int id, float x, float y) {
+        if (cellOf[id] != -1) {
+            move(id, x, y);
+            return;
+        }
+        link(id, cellIndex(x, y));
+        size++;
+    }
+
+    /**
+     * Updates the cell of an object after it moved. Nothing changes if it stays in its cell.
+     *
+     * @param id The id of the object.
+     * @param x  The new x-coordinate of the bottom left corner of the object.
+     * @param y  The new y-coordinate of the bottom left corner of the object.
+     */
+    public void move(int id, float x, float y) {
+        int cell = cellIndex(x, y);
+        if (cellOf[id] == cell) {
+            return;
+        }
+        if (cellOf[id] == -1) {
+            insert(id, x, y);
+            return;
+        }
+        unlink(id);
+        link(id, cell);
+    }
+
+    /**
+     * Removes an object from the grid.
+     *
+     * @param id The id of the object.
+     */
+    public void remove(int id) {
+        if (cellOf[id] != -1) {
+            unlink(id);
+            size--;
+        }
+    }
+
+    /**
+     * Collects the ids of all objects that may overlap the given rectangle. The caller still has to check the exact
+     * overlap, but every object that does overlap is returned exactly once.
+     *
+     * @param x      The x-coordinate of the rectangle.
+     * @param y      The y-coordinate of the rectangle.
+     * @param width  The width of the rectangle.
+     * @param height The height of the rectangle.
+     * @param result The array the ids are written to, it is cleared first.
+     */
+    public void query(float x, float y, float width, float height, IntArray result) {
+        result.clear();
+        int fromColumn = column(x - CELL_SIZE), toColumn = column(x + width);
+        int fromRow = row(y - CELL_SIZE), toRow = row(y + height);
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int column = fromColumn; column <= toColumn; column++) {
+                for (int id = cellHead[row * columns + column]; id != -1; id = next[id]) {
+                    result.add(id);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of objects in the grid.
+     *
+     * @return The number of ids currently in the grid.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the index of the cell containing the given point, clamped to the grid.
+     */
+    private int cellIndex(float x, float y) {
+        return row(y) * columns + column(x);
+    }
+
+    private int column(float x) {
+        return Math.min(Math.max(MathUtils.floor(x / CELL_SIZE), 0), columns - 1);
+    }
+
+    private int row(float y) {
+        return Math.min(Math.max(MathUtils.floor(y / CELL_SIZE), 0), rows - 1);
+    }
+
+    /**
+     * Puts an id at the front of a cell list.
+     */
+    private void link(int id, int cell) {
+        int head = cellHead[cell];
+        next[id] = head;
+        previous[id] = -1;
+        if (head != -1) {
+            previous[head] = id;
+        }
+        cellHead[cell] = id;
+        cellOf[id] = cell;
+    }
+
+    /**
+     * Takes an id out of its cell list.
+     */
+    private void unlink(int id) {
+        int cell = cellOf[id];
+        if (previous[id] != -1) {
+            next[previous[id]] = next[id];
+        } else {
+            cellHead[cell] = next[id];
+        }
+        if (next[id] != -1) {
+            previous[next[id]] = previous[id];
+        }
+        cellOf[id] = -1;
+    }
+}
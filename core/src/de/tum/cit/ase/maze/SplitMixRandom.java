@@ -0,0 +1,141 @@
+package de.tum.cit.ase.maze;
+
+/**
+ * The SplitMixRandom class is a random number generator producing the same numbers as {@link java.util.SplittableRandom},
+ * but with its state exposed as two longs. The EnemyStore keeps one per chunk, and a snapshot of the enemies copies the
+ * state instead of drawing a new seed, so taking a snapshot does not change how the game continues.
+ * <p>
+ * Only the methods the enemies use are implemented. Like SplittableRandom, an instance must not be shared between
+ * threads.
+ */
+final class SplitMixRandom {
+
+    //The increment of the seed of a new generator, the same as the one of SplittableRandom.
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    //The state of the generator: the seed is advanced by the gamma for every number.
+    private long seed;
+    private long gamma;
+
+    /**
+     * Constructor for SplitMixRandom. Creates the same stream as {@code new SplittableRandom(seed)}.
+     *
+     * @param seed The seed.
+     */
+    SplitMixRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    /**
+     * Constructor for SplitMixRandom. Continues a stream from its state.
+     *
+     * @param seed  The seed, see {@link #getSeed()}.
+     * @param gamma The gamma, see {@link #getGamma()}.
+     */
+    SplitMixRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+    }
+
+    /**
+     * Creates a new generator from this one, the same as {@link java.util.SplittableRandom#split()}.
+     *
+     * @return The new generator.
+     */
+    SplitMixRandom split() {
+        return new SplitMixRandom(nextLong(), mixGamma(nextSeed()));
+    }
+
+    /**
+     * Gets the next random long.
+     *
+     * @return A random long.
+     */
+    long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    /**
+     * Gets a random int between 0 and the bound.
+     *
+     * @param bound The exclusive upper bound, greater than 0.
+     * @return A random int.
+     */
+    int nextInt(int bound) {
+        int r = mix32(nextSeed());
+        int m = bound - 1;
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = mix32(nextSeed()) >>> 1) {
+            // Rejects the values that would make small results more likely
+        }
+        return r;
+    }
+
+    /**
+     * Gets a random double between the origin and the bound.
+     *
+     * @param origin The inclusive lower bound.
+     * @param bound  The exclusive upper bound, greater than the origin.
+     * @return A random double.
+     */
+    double nextDouble(double origin, double bound) {
+        double r = (nextLong() >>> 11) * 0x1.0p-53;
+        r = r * (bound - origin) + origin;
+        return r >= bound ? Math.nextDown(bound) : r;
+    }
+
+    /**
+     * Gets the seed of the state.
+     *
+     * @return The seed.
+     */
+    long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Gets the gamma of the state.
+     *
+     * @return The gamma.
+     */
+    long getGamma() {
+        return gamma;
+    }
+
+    /**
+     * Advances the seed.
+     */
+    private long nextSeed() {
+        return seed += gamma;
+    }
+
+    /**
+     * Mixes the bits of a seed into a long.
+     */
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Mixes the bits of a seed into an int.
+     */
+    private static int mix32(long z) {
+        z = (z ^ (z >>> 33)) * 0x62a9d9ed799705f5L;
+        return (int) (((z ^ (z >>> 28)) * 0xcb24d0a5c88c35b3L) >>> 32);
+    }
+
+    /**
+     * Mixes the bits of a seed into an odd gamma with enough bit changes.
+     */
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int n = Long.bitCount(z ^ (z >>> 1));
+        return (n < 24) ? z ^ 0xaaaaaaaaaaaaaaaaL : z;
+    }
+}
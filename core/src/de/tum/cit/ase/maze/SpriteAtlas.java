@@ -0,0 +1,165 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.PixmapPackerIO;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+
+/**
+ * The SpriteAtlas class packs all gameplay images into one texture, so the SpriteBatch and the caches of the
+ * {@link StaticGeometry} never have to switch textures while drawing a frame. The images are packed with a
+ * {@link PixmapPacker} on the first launch and the atlas is saved with {@link PixmapPackerIO} in the local "cache"
+ * directory. Later launches load the saved atlas, unless the images changed, which is detected by a checksum over
+ * their contents stored next to the atlas.
+ * <p>
+ * Packing and decoding only use pixmaps, so {@link #decode()} runs on the loader thread, and only {@link #upload(Pages)}
+ * needs the render thread. The atlas is shared through the {@link TextureRegistry}, which hands out its regions.
+ */
+public class SpriteAtlas {
+
+    //The gameplay images packed into the atlas.
+    public static final String[] IMAGES = {"wall.png", "entry.png", "exit.png", "trap.png", "enemy.png", "key.png",
+            "characterF.png", "characterU.png", "characterL.png", "characterR.png", "characterB.png"};
+
+    //The key of the atlas in the TextureRegistry.
+    public static final String ATLAS = "sprites.atlas";
+
+    //The size of an atlas page in pixels, all current images fit on one page.
+    private static final int PAGE_SIZE = 256;
+
+    //The empty pixels between two images, filled with their border so scaled images do not bleed into each other.
+    private static final int PADDING = 2;
+
+    //Changed whenever the way the atlas is packed changes, so atlases saved by older versions are packed again.
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * The decoded pages of an atlas, ready to be uploaded on the render thread.
+     */
+    public static class Pages {
+        final TextureAtlas.TextureAtlasData data;
+        final Pixmap[] pixmaps;
+
+        Pages(TextureAtlas.TextureAtlasData data, Pixmap[] pixmaps) {
+            this.data = data;
+            this.pixmaps = pixmaps;
+        }
+
+        /**
+         * Disposes the pixmaps that were not uploaded.
+         */
+        public void dispose() {
+            for (int i = 0; i < pixmaps.length; i++) {
+                if (pixmaps[i] != null) {
+                    pixmaps[i].dispose();
+                    pixmaps[i] = null;
+                }
+            }
+        }
+    }
+
+    private SpriteAtlas() {
+    }
+
+    /**
+     * Loads the saved atlas and decodes its pages, packing and saving it first if it is missing or the images changed.
+     * Does not need the render thread.
+     *
+     * @return The decoded pages.
+     */
+    public static synchronized Pages decode() {
+        String stamp = stamp();
+        FileHandle atlasFile = Gdx.files.local("cache/" + ATLAS);
+        FileHandle stampFile = atlasFile.sibling(ATLAS + ".stamp");
+        if (!atlasFile.exists() || !stampFile.exists() || !stamp.equals(stampFile.readString())) {
+            try {
+                pack(atlasFile, stampFile, stamp);
+            } catch (IOException | RuntimeException e) {
+                // The working directory may not be writable, then the atlas is saved in the temporary directory
+                Gdx.app.error("SpriteAtlas", "Could not save the atlas to " + atlasFile.path(), e);
+                atlasFile = Gdx.files.absolute(System.getProperty("java.io.tmpdir")).child("maze-cache").child(ATLAS);
+                stampFile = atlasFile.sibling(ATLAS + ".stamp");
+                try {
+                    pack(atlasFile, stampFile, stamp);
+                } catch (IOException ioException) {
+                    throw new IllegalStateException("Could not save the atlas", ioException);
+                }
+            }
+        }
+
+        TextureAtlas.TextureAtlasData data = new TextureAtlas.TextureAtlasData(atlasFile, atlasFile.parent(), false);
+        Array<TextureAtlas.TextureAtlasData.Page> pages = data.getPages();
+        Pixmap[] pixmaps = new Pixmap[pages.size];
+        for (int i = 0; i < pages.size; i++) {
+            pixmaps[i] = new Pixmap(pages.get(i).textureFile);
+        }
+        return new Pages(data, pixmaps);
+    }
+
+    /**
+     * Packs all images into pages and saves them with the atlas file. The stamp is written last, so an interrupted
+     * save is packed again on the next launch.
+     */
+    private static void pack(FileHandle atlasFile, FileHandle stampFile, String stamp) throws IOException {
+        atlasFile.parent().mkdirs();
+        stampFile.delete();
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, PADDING, true);
+        try {
+            for (String path : IMAGES) {
+                Pixmap image = new Pixmap(Gdx.files.internal(path));
+                packer.pack(regionName(path), image);
+                image.dispose();
+            }
+            new PixmapPackerIO().save(atlasFile, packer);
+        } finally {
+            packer.dispose();
+        }
+        stampFile.writeString(stamp, false);
+        Gdx.app.log("SpriteAtlas", "Packed " + IMAGES.length + " images into " + atlasFile.path());
+    }
+
+    /**
+     * Creates the textures of the decoded pages and the atlas with all regions. Needs the render thread.
+     *
+     * @param pages The decoded pages, their pixmaps are disposed.
+     * @return The atlas.
+     */
+    public static TextureAtlas upload(Pages pages) {
+        Array<TextureAtlas.TextureAtlasData.Page> dataPages = pages.data.getPages();
+        for (int i = 0; i < dataPages.size; i++) {
+            // The atlas only loads the page from its file if no texture is set
+            dataPages.get(i).texture = new Texture(pages.pixmaps[i]);
+        }
+        pages.dispose();
+        return new TextureAtlas(pages.data);
+    }
+
+    /**
+     * Gets the name of the region of an image in the atlas.
+     *
+     * @param path The internal path of the image, for example "wall.png".
+     * @return The name of the region, the path without the extension.
+     */
+    public static String regionName(String path) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? path : path.substring(0, dot);
+    }
+
+    /**
+     * Computes the checksum over the contents of all images and the packing settings.
+     */
+    private static String stamp() {
+        CRC32 crc = new CRC32();
+        for (String path : IMAGES) {
+            crc.update(Gdx.files.internal(path).readBytes());
+        }
+        return FORMAT_VERSION + ":" + PAGE_SIZE + ":" + PADDING + ":" + Long.toHexString(crc.getValue());
+    }
+}
@@ -0,0 +1,273 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.badlogic.gdx.utils.IntMap;
+
+/**
+ * The StaticGeometry class holds the maze objects that never move, the traps, walls, exits and the entry, in
+ * {@link SpriteCache}s. Their vertices are written once when the level is shown and stay on the graphics card, so
+ * drawing them costs a few draw calls per frame instead of writing four vertices per object into the SpriteBatch.
+ * <p>
+ * The objects are split into layers, which are drawn at different times between the moving objects, and into square
+ * chunks of {@link #CHUNK_TILES} tiles, each a separate cache. All images are regions of the {@link SpriteAtlas}, so a
+ * chunk is drawn with a single draw call, as a SpriteCache only needs another one when the texture changes. Only the
+ * chunks overlapping the visible area are drawn, so the number of drawn objects is bounded by the size of the view and
+ * not by the size of the maze.
+ */
+public class StaticGeometry implements Disposable {
+
+    //The layers: the floor is drawn below the enemies, the structure of the maze above them.
+    public static final int FLOOR = 0;
+    public static final int STRUCTURE = 1;
+
+    //The side of a chunk in tiles.
+    public static final int CHUNK_TILES = 32;
+
+    //The maximum number of images in one SpriteCache, the limit of a SpriteCache using indices.
+    private static final int MAX_SPRITES_PER_CACHE = 8191;
+
+    //The chunks in the order they were created, the chunks of a cache follow each other.
+    private final Array<Chunk> chunks = new Array<>();
+    private final IntMap<Chunk> chunksByKey = new IntMap<>();
+
+    //The caches holding the chunks, and the index of the first chunk of every cache.
+    private final Array<SpriteCache> caches = new Array<>();
+    private int[] firstChunks;
+
+    //The number of objects in all chunks.
+    private int spriteCount = 0;
+
+    /**
+     * Variables for the statistics of the last frame
+     */
+    private int drawCalls = 0;
+    private int drawnSprites = 0;
+
+    /**
+     * Adds a maze object to a layer. Objects can only be added before {@link #build()}.
+     *
+     * @param layer      The layer, {@link #FLOOR} or {@link #STRUCTURE}.
+     * @param mazeObject The maze object.
+     */
+    public void add(int layer, MazeObject mazeObject) {
+        int chunkSize = CHUNK_TILES * OccupancyGrid.TILE_SIZE;
+        int chunkX = (int) (mazeObject.getX() / chunkSize);
+        int chunkY = (int) (mazeObject.getY() / chunkSize);
+        int key = ((chunkY << 15 | chunkX) << 1) | layer;
+        Chunk chunk = chunksByKey.get(key);
+        if (chunk == null) {
+            chunk = new Chunk(layer);
+            chunksByKey.put(key, chunk);
+            chunks.add(chunk);
+        }
+        chunk.objects.add(mazeObject);
+        chunk.include(mazeObject);
+        spriteCount++;
+    }
+
+    /**
+     * Adds maze objects to a layer.
+     *
+     * @param layer       The layer, {@link #FLOOR} or {@link #STRUCTURE}.
+     * @param mazeObjects The maze objects.
+     */
+    public void addAll(int layer, Array<? extends MazeObject> mazeObjects) {
+        for (int i = 0; i < mazeObjects.size; i++) {
+            add(layer, mazeObjects.get(i));
+        }
+    }
+
+    /**
+     * Writes the vertices of all added objects into the caches. The chunks are filled into as few caches as
+     * possible, a chunk never spans two caches.
+     */
+    public void build() {
+        firstChunks = new int[chunks.size + 1];
+        int start = 0;
+        while (start < chunks.size) {
+            int end = start;
+            int sprites = 0;
+            while (end < chunks.size && sprites + chunks.get(end).objects.size <= MAX_SPRITES_PER_CACHE) {
+                sprites += chunks.get(end).objects.size;
+                end++;
+            }
+
+            SpriteCache cache = new SpriteCache(sprites, true);
+            for (int c = start; c < end; c++) {
+                Chunk chunk = chunks.get(c);
+                cache.beginCache();
+                for (int i = 0; i < chunk.objects.size; i++) {
+                    MazeObject object = chunk.objects.get(i);
+                    // The region stretched over the object, like SpriteBatch.draw(region, x, y, width, height)
+                    cache.add(object.getRegion(), object.getX(), object.getY(), object.getWidth(), object.getHeight());
+                }
+                chunk.cacheId = cache.endCache();
+                // The cache keeps its own copy of the vertices
+                chunk.objects.clear();
+            }
+            firstChunks[caches.size] = start;
+            caches.add(cache);
+            start = end;
+        }
+        firstChunks[caches.size] = chunks.size;
+        chunksByKey.clear();
+    }
+
+    /**
+     * Resets the statistics, called once per frame before the layers are drawn.
+     */
+    public void beginFrame() {
+        drawCalls = 0;
+        drawnSprites = 0;
+    }
+
+    /**
+     * Draws the chunks of a layer that overlap the visible area. Must not be called while a SpriteBatch is drawing.
+     *
+     * @param layer  The layer, {@link #FLOOR} or {@link #STRUCTURE}.
+     * @param camera The camera of the game.
+     * @param view   The area visible through the camera.
+     */
+    public void draw(int layer, OrthographicCamera camera, Rectangle view) {
+        // A SpriteCache does not enable blending itself, the images have transparent parts
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        for (int c = 0; c < caches.size; c++) {
+            SpriteCache cache = caches.get(c);
+            boolean drawing = false;
+            for (int i = firstChunks[c]; i < firstChunks[c + 1]; i++) {
+                Chunk chunk = chunks.get(i);
+                if (chunk.layer != layer || !chunk.overlaps(view)) {
+                    continue;
+                }
+                if (!drawing) {
+                    cache.setProjectionMatrix(camera.combined);
+                    cache.begin();
+                    drawing = true;
+                }
+                cache.draw(chunk.cacheId);
+                drawnSprites += chunk.sprites;
+            }
+            if (drawing) {
+                cache.end();
+                drawCalls += cache.renderCalls;
+            }
+        }
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    /**
+     * Counts the objects of a layer in the chunks overlapping an area, the objects {@link #draw} would draw for that
+     * view. Works without a graphics context, also before {@link #build()}.
+     *
+     * @param layer The layer, {@link #FLOOR} or {@link #STRUCTURE}.
+     * @param view  The visible area.
+     * @return The number of objects.
+     */
+    public int countVisible(int layer, Rectangle view) {
+        int visible = 0;
+        for (int i = 0; i < chunks.size; i++) {
+            Chunk chunk = chunks.get(i);
+            if (chunk.layer == layer && chunk.overlaps(view)) {
+                visible += chunk.sprites;
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Gets the number of draw calls of the caches in the current frame.
+     *
+     * @return The number of draw calls.
+     */
+    public int getDrawCalls() {
+        return drawCalls;
+    }
+
+    /**
+     * Gets the number of objects drawn from the caches in the current frame.
+     *
+     * @return The number of drawn objects.
+     */
+    public int getDrawnSprites() {
+        return drawnSprites;
+    }
+
+    /**
+     * Gets the number of objects in the caches.
+     *
+     * @return The number of objects.
+     */
+    public int getSpriteCount() {
+        return spriteCount;
+    }
+
+    /**
+     * Gets the number of vertices stored in the caches, four per object, written once when the level was shown.
+     *
+     * @return The number of vertices.
+     */
+    public int getVertexCount() {
+        return spriteCount * 4;
+    }
+
+    /**
+     * Gets the number of chunks of all layers.
+     *
+     * @return The number of chunks.
+     */
+    public int getChunkCount() {
+        return chunks.size;
+    }
+
+    /**
+     * Disposes the caches. The sprite atlas is shared through the TextureRegistry and is not disposed.
+     */
+    @Override
+    public void dispose() {
+        for (int i = 0; i < caches.size; i++) {
+            caches.get(i).dispose();
+        }
+        caches.clear();
+    }
+
+    /**
+     * A square part of a layer, drawn with one cache id, with the bounds of its objects.
+     */
+    private static class Chunk {
+        private final int layer;
+        private final Array<MazeObject> objects = new Array<>();
+        private int cacheId;
+        private int sprites;
+        private float minX = Float.MAX_VALUE, minY = Float.MAX_VALUE;
+        private float maxX = -Float.MAX_VALUE, maxY = -Float.MAX_VALUE;
+
+        Chunk(int layer) {
+            this.layer = layer;
+        }
+
+        /**
+         * Extends the bounds of the chunk by an object.
+         */
+        void include(MazeObject mazeObject) {
+            sprites++;
+            minX = Math.min(minX, mazeObject.getX());
+            minY = Math.min(minY, mazeObject.getY());
+            maxX = Math.max(maxX, mazeObject.getX() + mazeObject.getWidth());
+            maxY = Math.max(maxY, mazeObject.getY() + mazeObject.getHeight());
+        }
+
+        /**
+         * Checks whether the bounds of the chunk overlap an area.
+         */
+        boolean overlaps(Rectangle view) {
+            return minX < view.x + view.width && maxX > view.x && minY < view.y + view.height && maxY > view.y;
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.ObjectMap;
+
+/**
+ * The TextureRegistry class shares textures between all objects of the maze.
+ * Every image is loaded only once, no matter how many MazeObjects display it. The registry counts the references
+ * to each texture and disposes it as soon as the last object using it releases its reference.
+ * <p>
+ * The gameplay images are packed into the {@link SpriteAtlas}, which is shared like a single texture under the key
+ * {@link SpriteAtlas#ATLAS}. Its images are handed out as regions of the atlas, so they can all be drawn in one batch.
+ */
+public class TextureRegistry {
+
+    //The loaded textures together with their reference count, keyed by their internal path.
+    private static final ObjectMap<String, Entry> textures = new ObjectMap<>();
+
+    //How many times a texture was actually loaded from disk since the game started.
+    private static int loadCount = 0;
+
+    //How many times a texture was requested from the registry since the game started.
+    private static int acquireCount = 0;
+
+    //The regions of the resident atlas, keyed by the internal path of their image.
+    private static final ObjectMap<String, TextureRegion> regions = new ObjectMap<>();
+
+    //If true, no textures are loaded at all, used when the game logic runs without a window.
+    private static boolean headless = false;
+
+    /**
+     * A loaded atlas and the number of objects currently using it.
+     */
+    private static class Entry {
+        final TextureAtlas atlas;
+        int references;
+
+        Entry(TextureAtlas atlas) {
+            this.atlas = atlas;
+        }
+
+        void dispose() {
+            atlas.dispose();
+        }
+    }
+
+    private TextureRegistry() {
+    }
+
+    /**
+     * Returns the region of the given image in the sprite atlas and increases the reference count of the atlas.
+     * The atlas is loaded if it is not already resident, which blocks until it is decoded.
+     *
+     * @param path The internal path of an image of {@link SpriteAtlas#IMAGES}, for example "wall.png".
+     * @return The shared region of the image.
+     */
+    public static TextureRegion acquireRegion(String path) {
+        if (headless) {
+            return null;
+        }
+        Entry entry = textures.get(SpriteAtlas.ATLAS);
+        if (entry == null) {
+            entry = loadAtlas(SpriteAtlas.decode());
+        }
+        TextureRegion region = regions.get(path);
+        if (region == null) {
+            throw new IllegalArgumentException(path + " is not part of the sprite atlas");
+        }
+        entry.references++;
+        acquireCount++;
+        return region;
+    }
+
+    /**
+     * Increases the reference count of the sprite atlas. If the atlas is not resident yet, it is created from the
+     * given pages, which were already decoded (for example on a loader thread), otherwise the pages are dropped.
+     *
+     * @param pages The decoded pages of the atlas, always disposed by the registry.
+     */
+    public static void acquireAtlas(SpriteAtlas.Pages pages) {
+        if (headless) {
+            pages.dispose();
+            return;
+        }
+        Entry entry = textures.get(SpriteAtlas.ATLAS);
+        if (entry == null) {
+            entry = loadAtlas(pages);
+        } else {
+            pages.dispose();
+        }
+        entry.references++;
+        acquireCount++;
+    }
+
+    /**
+     * Uploads the pages of the sprite atlas and looks up the regions of all its images.
+     */
+    private static Entry loadAtlas(SpriteAtlas.Pages pages) {
+        Entry entry = new Entry(SpriteAtlas.upload(pages));
+        textures.put(SpriteAtlas.ATLAS, entry);
+        for (String image : SpriteAtlas.IMAGES) {
+            regions.put(image, entry.atlas.findRegion(SpriteAtlas.regionName(image)));
+        }
+        loadCount++;
+        return entry;
+    }
+
+    /**
+     * Decreases the reference count of the sprite atlas, which is disposed once none of its regions is used anymore.
+     * Called once for every call to {@link #acquireRegion(String)} or {@link #acquireAtlas(SpriteAtlas.Pages)}.
+     */
+    public static void releaseRegion() {
+        Entry entry = textures.get(SpriteAtlas.ATLAS);
+        if (entry == null) {
+            return;
+        }
+        entry.references--;
+        if (entry.references <= 0) {
+            entry.dispose();
+            textures.remove(SpriteAtlas.ATLAS);
+            regions.clear();
+        }
+    }
+
+    /**
+     * Switches the registry to headless mode, in which {@link #acquireRegion(String)} returns null instead of loading
+     * the atlas. Maze objects can then be created without an OpenGL context, for example to run the World in a benchmark.
+     *
+     * @param headless True to stop loading textures.
+     */
+    public static void setHeadless(boolean headless) {
+        TextureRegistry.headless = headless;
+    }
+
+    /**
+     * Gets how many textures were loaded from disk since the game started.
+     *
+     * @return The number of texture loads.
+     */
+    public static int getLoadCount() {
+        return loadCount;
+    }
+
+    /**
+     * Gets how many times a texture was requested since the game started.
+     *
+     * @return The number of calls to {@link #acquireRegion(String)} and {@link #acquireAtlas(SpriteAtlas.Pages)}.
+     */
+    public static int getAcquireCount() {
+        return acquireCount;
+    }
+
+    /**
+     * Gets the number of textures that are currently resident.
+     *
+     * @return The number of loaded and not yet disposed textures.
+     */
+    public static int getResidentCount() {
+        return textures.size;
+    }
+
+    /**
+     * Estimates the memory used by all resident textures, assuming 4 bytes per pixel.
+     *
+     * @return The estimated texture memory in bytes.
+     */
+    public static long getEstimatedMemoryBytes() {
+        long bytes = 0;
+        for (Entry entry : textures.values()) {
+            for (Texture page : entry.atlas.getTextures()) {
+                bytes += (long) page.getWidth() * page.getHeight() * 4;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Builds a short summary of the registry statistics, used for logging.
+     *
+     * @return The statistics as a String.
+     */
+    public static String getStatistics() {
+        return "resident=" + getResidentCount() + ", loads=" + loadCount + ", acquires=" + acquireCount
+                + ", memory=" + getEstimatedMemoryBytes() / 1024 + " KB";
+    }
+}
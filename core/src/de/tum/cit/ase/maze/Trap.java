@@ -1,14 +1,13 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-
-
 /**
  * Represents a trap object in the game maze.
  * Extends the MazeObject class and provides functionality specific to traps.
  */
 public class Trap extends MazeObject{
+    //The image of the trap.
+    public static final String TEXTURE = "trap.png";
+
     private float overlapTimer = 0f; // Timer to track the duration of overlap
 
     /**
@@ -18,7 +17,7 @@ public class Trap extends MazeObject{
      * @param y The y-coordinate of the trap.
      */
     public Trap(float x, float y) {
-        super(new Texture(Gdx.files.internal("trap.png")), x, y);
+        super(TEXTURE, x, y);
     }
 
     /**
@@ -1,14 +1,12 @@
 package de.tum.cit.ase.maze;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-
-
 /**
  * Represents the wall in the maze game.
  * Extends the MazeObject class.
  */
 public class Wall extends MazeObject{
+    //The image of the wall.
+    public static final String TEXTURE = "wall.png";
 
     /**
      * Constructor for the Wall class.
@@ -17,7 +15,7 @@ public class Wall extends MazeObject{
      * @param y The initial y-coordinate of the wall.
      */
     public Wall(float x, float y) {
-        super(new Texture(Gdx.files.internal("wall.png")), x, y);
+        super(TEXTURE, x, y);
     }
 
 }
@@ -0,0 +1,713 @@
+package de.tum.cit.ase.maze;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.badlogic.gdx.utils.IntMap;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * The World class contains the whole game logic of a level: the player, the enemies, the traps, the key and the exits.
+ * It does not draw anything and does not read the keyboard or the frame time. Instead, it advances by an explicit
+ * {@link #step(float, InputState)} call, so it can run without a window, for example to measure the cost of the
+ * game logic separately from drawing. The GameScreen only feeds the keyboard into the World and draws its state.
+ */
+public class World {
+
+    //Events reported by step(), combined as bit flags.
+    public static final int LIFE_LOST = 1;
+    public static final int KEY_COLLECTED = 2;
+    public static final int GAME_OVER = 4;
+    public static final int GAME_WON = 8;
+
+    //Points earned for finishing the level within 30 seconds, and for finishing it after 120 seconds or more.
+    private static final int MAX_POINTS = 1000;
+    private static final int MIN_POINTS = 100;
+
+    /**
+     * Variables for the character
+     */
+    private final Character character;
+    private final float speed = 200.0f;
+    private final int playerWidth = 30;
+    private final int playerHeight = 44;
+    private float playerX, playerY;
+    private float prevX, prevY;
+    private final Rectangle rectanglePlayer;
+
+    /**
+     * Position of the player at the start of the last step, used to interpolate between the last two steps for drawing
+     */
+    private float lastPlayerX, lastPlayerY;
+
+    /**
+     * Maze Objects
+     */
+    private final EnemyStore enemies;
+    private final Array<Trap> trapArray = new Array<>();
+    private final Array<Wall> wallArray = new Array<>();
+    private final Array<Exit> exitArray = new Array<>();
+    private Entry entry;
+    private Key key;
+
+    /**
+     * Spatial grids over the indices of the maze object arrays, used for collision detection
+     */
+    private final SpatialGrid enemyGrid, trapGrid;
+    private final IntArray nearby = new IntArray();
+
+    /**
+     * Tiles blocked by walls, exits and the entry, with the exit of each exit tile
+     */
+    private final OccupancyGrid occupancy;
+    private final IntMap<Exit> exitsByTile = new IntMap<>();
+
+    /**
+     * Identifies the layout the World was created from, snapshots can only be restored into the same layout
+     */
+    private final int layoutChecksum;
+
+    /**
+     * Shortest paths to the player, followed by the enemies if they chase the player
+     */
+    private final FlowField flowField;
+    private boolean chaseMode = false;
+
+    /**
+     * Limits the time the enemies spend on decisions per step, by default every enemy decides every step
+     */
+    private final AiScheduler aiScheduler;
+
+
+    /**
+     * Variables for the state of the game
+     */
+    private boolean isGameOver = false;
+    private boolean isGameWon = false;
+    private boolean ended = false;
+    private float elapsedTime = 0;
+    private int completedIn = 0;
+    private long ticks = 0;
+
+    /**
+     * Constructor for World. Sorts the maze objects by type, indexes them for collision detection and places the
+     * player at the entry.
+     *
+     * @param layout      The layout of the maze, which determines the size of the collision grids.
+     * @param mazeObjects The maze objects of the level, created from the layout.
+     * @param character   The character controlled by the player.
+     * @param random      The random number generator seeding the enemy movement.
+     */
+    public World(MazeLayout layout, ArrayList<MazeObject> mazeObjects, Character character, Random random) {
+        this.character = character;
+        layoutChecksum = layout.getChecksum();
+
+        enemies = new EnemyStore(layout.getCount(MazeLayout.ENEMY), random.nextLong());
+        for (MazeObject mazeObject : mazeObjects) {
+            if (mazeObject instanceof Enemy) {
+                // Only the initial position of the enemy is taken over, the store keeps its state from now on
+                enemies.add(mazeObject.getX(), mazeObject.getY());
+            }
+            if (mazeObject instanceof Exit) {
+                exitArray.add((Exit) mazeObject);
+            }
+            if (mazeObject instanceof Entry) {
+                entry = (Entry) mazeObject;
+            }
+            if (mazeObject instanceof Key) {
+                key = (Key) mazeObject;
+            }
+            if (mazeObject instanceof Trap) {
+                trapArray.add((Trap) mazeObject);
+            }
+            if (mazeObject instanceof Wall) {
+                wallArray.add((Wall) mazeObject);
+            }
+        }
+        if (entry == null || key == null) {
+            throw new IllegalArgumentException("The maze needs an entry and a key");
+        }
+
+        // Index the maze objects once, moving enemies are updated in the grid every step
+        enemyGrid = new SpatialGrid(layout.getWidth(), layout.getHeight(), enemies.size());
+        for (int i = 0; i < enemies.size(); i++) {
+            enemyGrid.insert(i, enemies.getX(i), enemies.getY(i));
+        }
+        trapGrid = createGrid(layout, trapArray);
+
+        // Mark the tiles of the static objects the characters cannot walk through
+        occupancy = new OccupancyGrid(layout.getWidth(), layout.getHeight());
+        for (Wall wall : wallArray) {
+            occupancy.mark(wall, MazeLayout.WALL);
+        }
+        for (Exit exit : exitArray) {
+            occupancy.mark(exit, MazeLayout.EXIT);
+            exitsByTile.put(occupancy.tileIndexOf(exit), exit);
+        }
+        occupancy.mark(entry, MazeLayout.ENTRY);
+        flowField = new FlowField(occupancy);
+        aiScheduler = new AiScheduler(enemies.size());
+
+        // Set the initial position of the player at the entry
+        rectanglePlayer = new Rectangle();
+        setPlayerPosition(entry.getX() + 15, entry.getY() + 5);
+    }
+
+    /**
+     * Advances the game by one step.
+     *
+     * @param dt    The time in seconds the step covers.
+     * @param input The input of the player during the step.
+     * @return The events that happened during the step, a combination of {@link #LIFE_LOST}, {@link #KEY_COLLECTED},
+     * {@link #GAME_OVER} and {@link #GAME_WON}.
+     */
+    public int step(float dt, InputState input) {
+        int events = 0;
+        ticks++;
+        lastPlayerX = playerX;
+        lastPlayerY = playerY;
+        enemies.recordLastPositions();
+
+        //COLLISION DETECTION BETWEEN ENEMY AND CHARACTER
+        enemyGrid.query(rectanglePlayer.x, rectanglePlayer.y, rectanglePlayer.width, rectanglePlayer.height, nearby);
+        for (int i = 0; i < nearby.size; i++){
+            int enemy = nearby.get(i);
+            if (enemies.overlaps(enemy, rectanglePlayer)) {
+                // Increment the timer if overlapping
+                float overlapTimer = enemies.addOverlapTime(enemy, dt);
+                playerY = prevY;
+                playerX = prevX;
+                enemies.rollBack(enemy);
+
+                // Check if the timer has reached the delay duration
+                if (overlapTimer >= 0.2 && character.getNumOfLives() > 0) {
+                    character.loseLife();
+                    events |= LIFE_LOST;
+
+                    // Reset the timer
+                    enemies.resetOverlapTimer(enemy);
+                }
+            }
+        }
+
+        //COLLISION DETECTION BETWEEN TRAP AND CHARACTER
+        trapGrid.query(rectanglePlayer.x, rectanglePlayer.y, rectanglePlayer.width, rectanglePlayer.height, nearby);
+        for (int i = 0; i < nearby.size; i++){
+            Trap trap = trapArray.get(nearby.get(i));
+            if (trap.getBounds().overlaps(rectanglePlayer)) {
+                // Increment the timer if overlapping
+                trap.setOverlapTimer(trap.getOverlapTimer() + dt);
+                playerY = prevY;
+                playerX = prevX;
+
+                // Check if the timer has reached the delay duration
+                if (trap.getOverlapTimer() >= 0.2 && character.getNumOfLives() > 0) {
+                    character.loseLife();
+                    events |= LIFE_LOST;
+
+                    // Reset the timer
+                    trap.setOverlapTimer(0);
+                }
+            }
+        }
+
+        //COLLISION DETECTION BETWEEN WALL AND CHARACTER
+        if (occupancy.overlaps(rectanglePlayer, MazeLayout.WALL)) {
+            playerY = prevY;
+            playerX = prevX;
+        }
+
+        //COLLISION DETECTION BETWEEN EXIT AND CHARACTER IF KEY IS COLLECTED
+        if (character.isKeyCollected()) {
+            occupancy.overlappingTiles(rectanglePlayer, MazeLayout.EXIT, nearby);
+            for (int i = 0; i < nearby.size; i++) {
+                Exit exit = exitsByTile.get(nearby.get(i));
+                character.setDirection(Direction.BACK);
+                exit.setOverlapTimer(exit.getOverlapTimer() + dt);
+                if (exit.getOverlapTimer() > 0.1){
+                    playerX = exit.getX() + 15;
+                    playerY = exit.getY() + 5;
+                    if (!isGameWon){
+                        completedIn = Math.round(elapsedTime);
+                    }
+                    isGameWon = true;
+                    exit.setOverlapTimer(0);
+                }
+            }
+        }
+
+        //COLLISION DETECTION BETWEEN EXIT AND CHARACTER IF KEY IS NOT COLLECTED
+        if (!character.isKeyCollected() && occupancy.overlaps(rectanglePlayer, MazeLayout.EXIT)){
+            playerY = prevY;
+            playerX = prevX;
+        }
+
+        //COLLISION DETECTION BETWEEN KEY AND CHARACTER
+        if (key.getBounds().overlaps(rectanglePlayer)){
+            if (!character.isKeyCollected()){
+                events |= KEY_COLLECTED;
+            }
+            character.setKeyCollected(true);
+        }
+
+        //COLLISION DETECTION BETWEEN ENTRY AND CHARACTER
+        if (rectanglePlayer.getX() < entry.getBounds().x){
+            playerY = prevY;
+            playerX = prevX;
+        }
+
+        //COLLISION DETECTION BETWEEN WALL, ENTRY OR EXIT AND ENEMY, AND ENEMY MOVEMENTS
+        if (chaseMode) {
+            // The flow field is only searched again when the player entered another tile
+            flowField.update(playerX + playerWidth / 2f, playerY + playerHeight / 2f);
+        }
+        FlowField enemyFlowField = chaseMode ? flowField : null;
+        enemies.setFocus(playerX + playerWidth / 2f, playerY + playerHeight / 2f);
+        if (aiScheduler.isLimited()) {
+            // Decide for as many enemies as the budget allows, then move all of them
+            aiScheduler.run(enemies, dt, enemyFlowField, playerX + playerWidth / 2f, playerY + playerHeight / 2f);
+            enemies.update(dt, occupancy, enemyFlowField, false);
+        } else {
+            enemies.update(dt, occupancy, enemyFlowField, true);
+            aiScheduler.recordAll(enemies, dt);
+        }
+
+        //PLAYER MOVEMENT
+        if (!character.isPaused()){
+            movePlayer(dt, input);
+        }
+
+        if (character.getNumOfLives() <= 0) {
+            isGameOver = true;
+        }
+
+        //UPDATE RECTANGLES in place, so no garbage is created every step
+        rectanglePlayer.set(playerX, playerY, playerWidth, playerHeight);
+        for (int i = 0; i < enemies.size(); i++){
+            // Far enemies that were not updated in this step did not move
+            if (enemies.wasUpdated(i)) {
+                enemyGrid.move(i, enemies.getX(i), enemies.getY(i));
+            }
+        }
+        key.getBounds().set(key.getX(), key.getY(), key.getWidth(), key.getHeight());
+
+        // Freeze the game once it is over or won
+        if (!ended && (isGameOver || isGameWon)) {
+            ended = true;
+            events |= isGameOver ? GAME_OVER : GAME_WON;
+            stopGamePlay();
+        }
+        if (!ended) {
+            elapsedTime += dt;
+        }
+        return events;
+    }
+
+    /**
+     * Moves the player according to the input and updates its direction.
+     * Only one direction is applied per step, in the order up, down, left, right.
+     *
+     * @param dt    The time in seconds the step covers.
+     * @param input The input of the player during the step.
+     */
+    private void movePlayer(float dt, InputState input){
+        Direction direction;
+        if (input.isUp()) {
+            direction = Direction.UP;
+        } else if (input.isDown()) {
+            direction = Direction.DOWN;
+        } else if (input.isLeft()) {
+            direction = Direction.LEFT;
+        } else if (input.isRight()) {
+            direction = Direction.RIGHT;
+        } else {
+            return;
+        }
+
+        // Store the previous position on the axis the player moves along and move the player
+        if (direction.getDx() != 0) {
+            prevX = playerX;
+            playerX += direction.getDx() * dt * speed;
+        } else {
+            prevY = playerY;
+            playerY += direction.getDy() * dt * speed;
+        }
+        character.setDirection(direction);
+    }
+
+    /**
+     * Pauses the gameplay by setting the character and all enemies to a paused state.
+     * This method is called when the game is either won or lost to freeze the gameplay.
+     */
+    private void stopGamePlay(){
+        character.setPaused(true);
+        enemies.setPaused(true);
+    }
+
+    /**
+     * Creates a spatial grid covering the maze and inserts the given objects, using their index in the array as id.
+     *
+     * @param layout  The layout of the maze, which determines the size of the grid.
+     * @param objects The objects to insert.
+     * @return The spatial grid containing the objects.
+     */
+    private static SpatialGrid createGrid(MazeLayout layout, Array<? extends MazeObject> objects) {
+        SpatialGrid grid = new SpatialGrid(layout.getWidth(), layout.getHeight(), objects.size);
+        for (int i = 0; i < objects.size; i++) {
+            grid.insert(i, objects.get(i).getX(), objects.get(i).getY());
+        }
+        return grid;
+    }
+
+    /**
+     * Places the player at the given position, for example when a paused game is resumed.
+     *
+     * @param x The x-coordinate of the player.
+     * @param y The y-coordinate of the player.
+     */
+    public void setPlayerPosition(float x, float y) {
+        playerX = x;
+        playerY = y;
+        prevX = x;
+        prevY = y;
+        lastPlayerX = x;
+        lastPlayerY = y;
+        rectanglePlayer.set(playerX, playerY, playerWidth, playerHeight);
+    }
+
+    /**
+     * Takes a snapshot of the current state of the game, to restore it later, for example when a paused game is
+     * resumed. Taking a snapshot does not change the World.
+     *
+     * @param level    The level of this World, between 1 and 6.
+     * @param filePath The path of the custom map of level 6, or null.
+     * @return The snapshot.
+     */
+    public GameState saveState(int level, String filePath) {
+        return new GameState(this, level, filePath);
+    }
+
+    /**
+     * Replaces the state of the game with a snapshot taken from a World of the same level, so the game continues
+     * exactly where the snapshot was taken.
+     *
+     * @param state The snapshot.
+     * @throws IllegalArgumentException If the snapshot was taken in a World of another layout.
+     */
+    public void restoreState(GameState state) {
+        if (state.getLayoutChecksum() != layoutChecksum || state.getTrapCount() != trapArray.size
+                || state.getExitCount() != exitArray.size) {
+            throw new IllegalArgumentException("The snapshot was taken in another level");
+        }
+        enemies.restoreState(state.getEnemies());
+        for (int i = 0; i < enemies.size(); i++) {
+            enemyGrid.move(i, enemies.getX(i), enemies.getY(i));
+        }
+        for (int i = 0; i < trapArray.size; i++) {
+            trapArray.get(i).setOverlapTimer(state.getTrapTimer(i));
+        }
+        for (int i = 0; i < exitArray.size; i++) {
+            exitArray.get(i).setOverlapTimer(state.getExitTimer(i));
+        }
+
+        ticks = state.getTicks();
+        elapsedTime = state.getElapsedTime();
+        completedIn = state.getCompletedIn();
+        isGameOver = state.isGameOver();
+        isGameWon = state.isGameWon();
+        // The game is frozen at the end of the step in which it ended, a snapshot is only taken between steps
+        ended = isGameOver || isGameWon;
+
+        character.setNumOfLives(state.getNumOfLives());
+        character.setKeyCollected(state.isKeyCollected());
+        character.setDirection(state.getDirection());
+        character.setPaused(ended);
+
+        playerX = state.getPlayerX();
+        playerY = state.getPlayerY();
+        prevX = state.getPrevX();
+        prevY = state.getPrevY();
+        lastPlayerX = state.getLastPlayerX();
+        lastPlayerY = state.getLastPlayerY();
+        rectanglePlayer.set(playerX, playerY, playerWidth, playerHeight);
+    }
+
+    /**
+     * Collects the enemies that may overlap a rectangle from the spatial grid, for example to draw only the enemies
+     * in the visible area. Enemies near the border of the rectangle may be included even if they do not overlap it.
+     *
+     * @param area   The rectangle.
+     * @param result The array the indices of the enemies are written to, it is cleared first.
+     */
+    public void findEnemies(Rectangle area, IntArray result) {
+        enemyGrid.query(area.x, area.y, area.width, area.height, result);
+    }
+
+    /**
+     * Lets the enemies chase the player along the shortest paths, or walk in random directions.
+     *
+     * @param chaseMode True if the enemies chase the player.
+     */
+    public void setChaseMode(boolean chaseMode) {
+        this.chaseMode = chaseMode;
+    }
+
+    /**
+     * Checks if the enemies chase the player.
+     *
+     * @return True if the enemies chase the player.
+     */
+    public boolean isChaseMode() {
+        return chaseMode;
+    }
+
+    /**
+     * Gets the flow field the enemies follow in chase mode.
+     *
+     * @return The flow field.
+     */
+    public FlowField getFlowField() {
+        return flowField;
+    }
+
+    /**
+     * Gets the scheduler of the enemy decisions, to set its time budget and read its metrics.
+     *
+     * @return The scheduler.
+     */
+    public AiScheduler getAiScheduler() {
+        return aiScheduler;
+    }
+
+    /**
+     * Gets the points earned for winning the level, based on the completion time.
+     *
+     * @return The earned points, or 0 if the level was not won.
+     */
+    public int getEarnedPoints() {
+        if (!isGameWon) {
+            return 0;
+        }
+        if (completedIn <= 30){
+            return MAX_POINTS;
+        } else if (completedIn >= 120) {
+            return MIN_POINTS;
+        }
+        return MAX_POINTS - (completedIn - 30)*10;
+    }
+
+    /**
+     * Gets the character controlled by the player.
+     *
+     * @return The character.
+     */
+    public Character getCharacter() {
+        return character;
+    }
+
+    /**
+     * Gets the x-coordinate of the player.
+     *
+     * @return The x-coordinate of the player.
+     */
+    public float getPlayerX() {
+        return playerX;
+    }
+
+    /**
+     * Gets the y-coordinate of the player.
+     *
+     * @return The y-coordinate of the player.
+     */
+    public float getPlayerY() {
+        return playerY;
+    }
+
+    /**
+     * Gets the checksum of the layout the World was created from, see {@link MazeLayout#getChecksum()}.
+     *
+     * @return The checksum of the layout.
+     */
+    public int getLayoutChecksum() {
+        return layoutChecksum;
+    }
+
+    /**
+     * Gets the x-coordinate the player is moved back to when it bumps into something.
+     *
+     * @return The previous x-coordinate of the player.
+     */
+    float getPrevPlayerX() {
+        return prevX;
+    }
+
+    /**
+     * Gets the y-coordinate the player is moved back to when it bumps into something.
+     *
+     * @return The previous y-coordinate of the player.
+     */
+    float getPrevPlayerY() {
+        return prevY;
+    }
+
+    /**
+     * Gets the x-coordinate of the player between the last two steps.
+     *
+     * @param alpha How far to go from the position before the last step (0) to the current position (1).
+     * @return The interpolated x-coordinate of the player.
+     */
+    public float getPlayerX(float alpha) {
+        return lastPlayerX + (playerX - lastPlayerX) * alpha;
+    }
+
+    /**
+     * Gets the y-coordinate of the player between the last two steps.
+     *
+     * @param alpha How far to go from the position before the last step (0) to the current position (1).
+     * @return The interpolated y-coordinate of the player.
+     */
+    public float getPlayerY(float alpha) {
+        return lastPlayerY + (playerY - lastPlayerY) * alpha;
+    }
+
+    /**
+     * Gets the width of the player.
+     *
+     * @return The width of the player in pixels.
+     */
+    public int getPlayerWidth() {
+        return playerWidth;
+    }
+
+    /**
+     * Gets the height of the player.
+     *
+     * @return The height of the player in pixels.
+     */
+    public int getPlayerHeight() {
+        return playerHeight;
+    }
+
+    /**
+     * Gets the enemies of the level.
+     *
+     * @return The store with the state of all enemies.
+     */
+    public EnemyStore getEnemies() {
+        return enemies;
+    }
+
+    /**
+     * Gets the traps of the level.
+     *
+     * @return The traps.
+     */
+    public Array<Trap> getTraps() {
+        return trapArray;
+    }
+
+    /**
+     * Gets the walls of the level.
+     *
+     * @return The walls.
+     */
+    public Array<Wall> getWalls() {
+        return wallArray;
+    }
+
+    /**
+     * Gets the exits of the level.
+     *
+     * @return The exits.
+     */
+    public Array<Exit> getExits() {
+        return exitArray;
+    }
+
+    /**
+     * Gets the entry of the level.
+     *
+     * @return The entry.
+     */
+    public Entry getEntry() {
+        return entry;
+    }
+
+    /**
+     * Gets the key of the level.
+     *
+     * @return The key.
+     */
+    public Key getKey() {
+        return key;
+    }
+
+    /**
+     * Checks if the game is over because the character lost all lives.
+     *
+     * @return True if the game is over.
+     */
+    public boolean isGameOver() {
+        return isGameOver;
+    }
+
+    /**
+     * Checks if the level was won.
+     *
+     * @return True if the character left the maze through an exit.
+     */
+    public boolean isGameWon() {
+        return isGameWon;
+    }
+
+    /**
+     * Gets the time in seconds it took to finish the level.
+     *
+     * @return The completion time, or 0 if the level was not won.
+     */
+    public int getCompletedIn() {
+        return completedIn;
+    }
+
+    /**
+     * Gets the simulated time since the level started, without the time after the game ended.
+     *
+     * @return The elapsed time in seconds.
+     */
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+
+    /**
+     * Gets the number of steps simulated so far.
+     *
+     * @return The number of steps.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * Computes a hash of everything a step changes: the step counter, the player, the state of the game and the
+     * positions and directions of all enemies. Two Worlds that ran the same steps have the same hash, so a replay
+     * can find the first step at which it differs from the recording.
+     *
+     * @return The hash of the current state.
+     */
+    public int getStateHash() {
+        int hash = Long.hashCode(ticks);
+        hash = 31 * hash + Float.floatToIntBits(playerX);
+        hash = 31 * hash + Float.floatToIntBits(playerY);
+        hash = 31 * hash + character.getNumOfLives();
+        hash = 31 * hash + (character.isKeyCollected() ? 1 : 0);
+        hash = 31 * hash + (isGameOver ? 1 : 0) + (isGameWon ? 2 : 0);
+        for (int i = 0; i < enemies.size(); i++) {
+            hash = 31 * hash + Float.floatToIntBits(enemies.getX(i));
+            hash = 31 * hash + Float.floatToIntBits(enemies.getY(i));
+            hash = 31 * hash + enemies.getDirection(i);
+        }
+        return hash;
+    }
+}